@@ -37,6 +37,9 @@ public class DocPushRequest extends BaseRequest<DocPushResponse> {
     /** 是否覆盖文档，1：覆盖，0：不覆盖。缺省：0。如果只想修改部分接口传1 */
     private Byte isOverride = Booleans.FALSE;
 
+    /** 是否增量推送，1：内容没有变化的文档不再保存，0：全部保存。缺省：0 */
+    private Byte isIncremental = Booleans.FALSE;
+
     /**
      * @param token OpenAPI对应的token
      */
@@ -0,0 +1,30 @@
+package cn.torna.sdk.request;
+
+import cn.torna.sdk.response.DocPushStatusResponse;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 查询推送结果
+ * 接口名	doc.push.status	版本号	1.0
+ * @author tanghc
+ */
+@Getter
+@Setter
+public class DocPushStatusRequest extends BaseRequest<DocPushStatusResponse> {
+
+    /** 推送任务id，doc.push返回 */
+    private String jobId;
+
+    /**
+     * @param token OpenAPI对应的token
+     */
+    public DocPushStatusRequest(String token) {
+        super(token);
+    }
+
+    @Override
+    public String name() {
+        return "doc.push.status";
+    }
+}
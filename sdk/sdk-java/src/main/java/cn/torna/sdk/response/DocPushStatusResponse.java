@@ -0,0 +1,9 @@
+package cn.torna.sdk.response;
+
+import cn.torna.sdk.result.DocPushStatusResult;
+
+/**
+ * @author tanghc
+ */
+public class DocPushStatusResponse extends BaseResponse<DocPushStatusResult> {
+}
@@ -9,4 +9,8 @@ import lombok.Setter;
 @Getter
 @Setter
 public class DocPushResult {
+
+    /** 推送任务id，可通过doc.push.status查询推送结果 */
+    private String jobId;
+
 }
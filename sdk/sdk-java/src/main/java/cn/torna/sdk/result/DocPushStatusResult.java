@@ -0,0 +1,46 @@
+package cn.torna.sdk.result;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author tanghc
+ */
+@Getter
+@Setter
+public class DocPushStatusResult {
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_SUCCEEDED = "SUCCEEDED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    /** 推送任务id */
+    private String jobId;
+
+    /** 推送状态，QUEUED：排队中，RUNNING：执行中，SUCCEEDED：成功，FAILED：失败 */
+    private String status;
+
+    /** 失败原因 */
+    private String message;
+
+    /** 执行耗时，毫秒 */
+    private Long duration;
+
+    /** 新增文档数量 */
+    private Integer insertCount;
+
+    /** 修改文档数量 */
+    private Integer updateCount;
+
+    /** 内容没有变化跳过的文档数量 */
+    private Integer skipCount;
+
+    /**
+     * 推送是否已结束，成功或失败
+     */
+    public boolean isFinished() {
+        return STATUS_SUCCEEDED.equals(status) || STATUS_FAILED.equals(status);
+    }
+
+}
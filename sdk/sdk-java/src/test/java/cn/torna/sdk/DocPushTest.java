@@ -11,7 +11,10 @@ import cn.torna.sdk.param.DocParamResp;
 import cn.torna.sdk.param.EnumInfoParam;
 import cn.torna.sdk.param.EnumItemParam;
 import cn.torna.sdk.request.DocPushRequest;
+import cn.torna.sdk.request.DocPushStatusRequest;
 import cn.torna.sdk.response.DocPushResponse;
+import cn.torna.sdk.response.DocPushStatusResponse;
+import cn.torna.sdk.result.DocPushStatusResult;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -22,7 +25,7 @@ import java.util.List;
  */
 public class DocPushTest extends BaseTest {
 
-    public void testDocPush() {
+    public void testDocPush() throws InterruptedException {
         DocPushRequest request = new DocPushRequest(token);
         // 创建分类
         DocItem folder = new DocItem();
@@ -58,11 +61,35 @@ public class DocPushTest extends BaseTest {
         if (response.isSuccess()) {
             // 返回结果
             System.out.println("请求成功");
+            this.waitPushFinished(response.getData().getJobId());
         } else {
             System.out.println("errorCode:" + response.getCode() + ",errorMsg:" + response.getMsg());
         }
     }
 
+    /**
+     * 轮询推送结果
+     */
+    private void waitPushFinished(String jobId) throws InterruptedException {
+        DocPushStatusRequest request = new DocPushStatusRequest(token);
+        request.setJobId(jobId);
+        for (int i = 0; i < 30; i++) {
+            DocPushStatusResponse response = client.execute(request);
+            if (!response.isSuccess()) {
+                System.out.println("errorCode:" + response.getCode() + ",errorMsg:" + response.getMsg());
+                return;
+            }
+            DocPushStatusResult result = response.getData();
+            if (result.isFinished()) {
+                System.out.println("推送状态：" + result.getStatus() + "，耗时：" + result.getDuration()
+                        + "ms，新增：" + result.getInsertCount() + "，修改：" + result.getUpdateCount()
+                        + "，跳过：" + result.getSkipCount() + "，" + result.getMessage());
+                return;
+            }
+            Thread.sleep(1000);
+        }
+    }
+
     private List<DocParamCode> buildEnumItemParamList() {
         List<DocParamCode> errorCodes = new ArrayList<>(3);
         for (int i = 0; i < 4; i++) {
@@ -0,0 +1,96 @@
+package cn.torna;
+
+import cn.torna.api.convert.DocPushItemConverter;
+import cn.torna.api.open.param.DocParamPushParam;
+import cn.torna.api.open.param.DocPushItemParam;
+import cn.torna.api.open.param.DubboParam;
+import cn.torna.api.open.param.EnumInfoCreateParam;
+import cn.torna.api.open.param.EnumItemCreateParam;
+import cn.torna.api.open.param.HeaderParamPushParam;
+import cn.torna.common.util.CopyUtil;
+import cn.torna.service.dto.DocInfoDTO;
+import com.alibaba.fastjson.JSON;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * 推送文档转换结果与JSON深拷贝保持一致
+ *
+ * @author tanghc
+ */
+public class DocPushItemConverterTest {
+
+    @Test
+    public void testConvert() {
+        DocPushItemParam param = buildItem(0);
+        DocInfoDTO expect = CopyUtil.deepCopy(param, DocInfoDTO.class);
+        DocInfoDTO actual = DocPushItemConverter.toDocInfoDTO(param);
+        Assertions.assertEquals(JSON.toJSONString(expect), JSON.toJSONString(actual));
+        Assertions.assertEquals(expect.getRequestParams().get(0).getChildren().get(0).getParentId(),
+                actual.getRequestParams().get(0).getChildren().get(0).getParentId());
+    }
+
+    @Test
+    public void testConvertEmpty() {
+        DocPushItemParam param = new DocPushItemParam();
+        param.setName("empty");
+        DocInfoDTO expect = CopyUtil.deepCopy(param, DocInfoDTO.class);
+        DocInfoDTO actual = DocPushItemConverter.toDocInfoDTO(param);
+        Assertions.assertEquals(JSON.toJSONString(expect), JSON.toJSONString(actual));
+    }
+
+    private static DocPushItemParam buildItem(int i) {
+        DocParamPushParam child = DocParamPushParam.builder()
+                .name("goodsName")
+                .type("string")
+                .required((byte) 1)
+                .description("商品名称")
+                .parentId(10L)
+                .orderIndex(1)
+                .build();
+        EnumItemCreateParam enumItem = new EnumItemCreateParam();
+        enumItem.setName("ON");
+        enumItem.setType("string");
+        enumItem.setValue("1");
+        EnumInfoCreateParam enumInfo = new EnumInfoCreateParam();
+        enumInfo.setName("Status");
+        enumInfo.setItems(Collections.singletonList(enumItem));
+        DocParamPushParam goods = DocParamPushParam.builder()
+                .name("goods")
+                .type("object")
+                .required((byte) 0)
+                .example("{}")
+                .enumInfo(enumInfo)
+                .children(Collections.singletonList(child))
+                .build();
+        HeaderParamPushParam header = HeaderParamPushParam.builder()
+                .name("token")
+                .required((byte) 1)
+                .example("abc")
+                .build();
+        DubboParam dubboInfo = new DubboParam();
+        dubboInfo.setInterfaceName("com.xx.GoodsService");
+        dubboInfo.setVersion("1.0");
+        return DocPushItemParam.builder()
+                .name("获取商品" + i)
+                .description("获取商品信息")
+                .author("tom")
+                .url("/goods/get/" + i)
+                .httpMethod("POST")
+                .contentType("application/json")
+                .isFolder((byte) 0)
+                .isShow((byte) 1)
+                .orderIndex(i)
+                .isRequestArray((byte) 0)
+                .isResponseArray((byte) 1)
+                .dubboInfo(dubboInfo)
+                .headerParams(Collections.singletonList(header))
+                .requestParams(Collections.singletonList(goods))
+                .responseParams(new ArrayList<>())
+                .build();
+    }
+
+}
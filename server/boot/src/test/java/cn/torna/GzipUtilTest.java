@@ -0,0 +1,23 @@
+package cn.torna;
+
+import cn.torna.common.util.GzipUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author tanghc
+ */
+public class GzipUtilTest {
+
+    @Test
+    public void testCompress() {
+        String content = SwaggerApiConvertTest.buildContent(200) + "中文";
+        byte[] data = GzipUtil.compress(content);
+        System.out.println("原始大小：" + content.getBytes(StandardCharsets.UTF_8).length + "，压缩后大小：" + data.length);
+        Assertions.assertEquals(content, GzipUtil.decompress(data));
+        Assertions.assertEquals("", GzipUtil.decompress(GzipUtil.compress("")));
+    }
+
+}
@@ -0,0 +1,45 @@
+package cn.torna;
+
+import cn.torna.dao.entity.ModuleSwaggerConfig;
+import cn.torna.service.ModuleSwaggerConfigService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 1.23.0之前swagger内容存放在module_swagger_config.content
+ *
+ * @author tanghc
+ */
+public class ModuleSwaggerConfigServiceTest extends TornaApplicationTests {
+
+    private static final String CONTENT = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"旧版本内容\"}}";
+
+    @Autowired
+    private ModuleSwaggerConfigService moduleSwaggerConfigService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testLegacyContent() {
+        long moduleId = -System.currentTimeMillis();
+        jdbcTemplate.update("INSERT INTO module_swagger_config (module_id, url, content) VALUES (?, '', ?)", moduleId, CONTENT);
+        ModuleSwaggerConfig config = moduleSwaggerConfigService.getByModuleId(moduleId);
+        try {
+            // 还没迁移，直接读content字段
+            Assertions.assertEquals(CONTENT, moduleSwaggerConfigService.getContent(config));
+
+            Assertions.assertTrue(moduleSwaggerConfigService.migrateLegacyContent() >= 1);
+            Assertions.assertEquals(CONTENT, moduleSwaggerConfigService.getContent(config));
+            Integer legacyCount = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM module_swagger_config WHERE id = ? AND content IS NOT NULL", Integer.class, config.getId());
+            Assertions.assertEquals(0, legacyCount);
+        } finally {
+            jdbcTemplate.update("DELETE FROM module_swagger_content WHERE module_swagger_config_id = ?", config.getId());
+            jdbcTemplate.update("DELETE FROM module_swagger_config WHERE id = ?", config.getId());
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+package cn.torna;
+
+import cn.torna.api.open.SwaggerApi;
+import cn.torna.api.open.param.DocParamPushParam;
+import cn.torna.api.open.param.DocPushItemParam;
+import cn.torna.api.open.param.DocPushParam;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * OpenAPI转换成推送参数，不需要启动Spring
+ *
+ * @author tanghc
+ */
+public class SwaggerApiConvertTest {
+
+    @Test
+    public void testSharedRef() {
+        DocPushParam docPushParam = SwaggerApi.buildDocPushParam("tanghc", SwaggerApi.getOpenAPI(buildContent(10)));
+        Map<String, DocPushItemParam> items = listItems(docPushParam).stream()
+                .collect(Collectors.toMap(item -> item.getHttpMethod() + item.getUrl(), Function.identity()));
+        DocPushItemParam get0 = items.get("GET/order/0");
+        DocPushItemParam get1 = items.get("GET/order/1");
+        // 同一个$ref展开结果一样，但不是同一个对象
+        Assertions.assertEquals(JSON.toJSONString(get0.getResponseParams()), JSON.toJSONString(get1.getResponseParams()));
+        Assertions.assertNotSame(get0.getResponseParams().get(0), get1.getResponseParams().get(0));
+        get0.getResponseParams().get(1).getChildren().get(0).setName("changed");
+        Assertions.assertEquals("total", get1.getResponseParams().get(1).getChildren().get(0).getName());
+
+        // ResultPageOrderDTO -> data -> list -> OrderDTO
+        DocParamPushParam list = findParam(get0.getResponseParams(), "data", "list");
+        Assertions.assertEquals("array[object]", list.getType());
+        // OrderDTO -> items -> order，已经出现过的不再展开
+        DocParamPushParam order = findParam(list.getChildren(), "items", "order");
+        Assertions.assertEquals("object", order.getType());
+        Assertions.assertNull(order.getChildren());
+        // 请求参数中的OrderDTO是第一次出现，会展开items.order之外的内容
+        DocPushItemParam post0 = items.get("POST/order/0");
+        Assertions.assertEquals(JSON.toJSONString(list.getChildren()), JSON.toJSONString(post0.getRequestParams()));
+        // 同一棵树中第二次出现的User不展开
+        Assertions.assertNotNull(findParam(post0.getRequestParams(), "buyer").getChildren());
+        Assertions.assertNull(findParam(post0.getRequestParams(), "seller").getChildren());
+    }
+
+    /**
+     * 并行生成结果与之前顺序生成的结果（swagger/order-push.json）一致
+     */
+    @Test
+    public void testGolden() throws IOException {
+        String expect = IOUtils.toString(getClass().getResourceAsStream("/swagger/order-push.json"), StandardCharsets.UTF_8);
+        for (int i = 0; i < 10; i++) {
+            DocPushParam docPushParam = SwaggerApi.buildDocPushParam("tanghc", SwaggerApi.getOpenAPI(buildContent(2)));
+            Assertions.assertEquals(expect, JSON.toJSONString(docPushParam, SerializerFeature.PrettyFormat));
+        }
+    }
+
+    @Test
+    public void testOrderIndex() {
+        String content = buildContent(400);
+        DocPushParam docPushParam = SwaggerApi.buildDocPushParam("tanghc", SwaggerApi.getOpenAPI(content));
+        List<DocPushItemParam> items = listItems(docPushParam);
+        items.sort(Comparator.comparing(DocPushItemParam::getOrderIndex));
+        // 按路径、请求方法的顺序排序
+        for (int i = 0; i < items.size(); i++) {
+            DocPushItemParam item = items.get(i);
+            Assertions.assertEquals(i, item.getOrderIndex());
+            Assertions.assertEquals("/order/" + i / 2, item.getUrl());
+            Assertions.assertEquals(i % 2 == 0 ? "GET" : "POST", item.getHttpMethod());
+        }
+        // 目录排在文档后面
+        for (int i = 0; i < docPushParam.getApis().size(); i++) {
+            Assertions.assertEquals(items.size() + i, docPushParam.getApis().get(i).getOrderIndex());
+        }
+        DocPushParam again = SwaggerApi.buildDocPushParam("tanghc", SwaggerApi.getOpenAPI(content));
+        Assertions.assertEquals(JSON.toJSONString(docPushParam), JSON.toJSONString(again));
+    }
+
+    /**
+     * $ref展开结果只在一次导入中复用，同一个OpenAPI多次转换结果一致
+     */
+    @Test
+    public void testConvertTwice() {
+        OpenAPI openAPI = SwaggerApi.getOpenAPI(buildContent(20));
+        DocPushParam first = SwaggerApi.buildDocPushParam("tanghc", openAPI);
+        listItems(first).get(0).getResponseParams().get(0).setName("changed");
+        DocPushParam second = SwaggerApi.buildDocPushParam("tanghc", openAPI);
+        Assertions.assertEquals("code", listItems(second).get(0).getResponseParams().get(0).getName());
+        Assertions.assertEquals(JSON.toJSONString(SwaggerApi.buildDocPushParam("tanghc", SwaggerApi.getOpenAPI(buildContent(20)))),
+                JSON.toJSONString(second));
+    }
+
+    private static List<DocPushItemParam> listItems(DocPushParam docPushParam) {
+        List<DocPushItemParam> items = new ArrayList<>();
+        for (DocPushItemParam item : docPushParam.getApis()) {
+            if (item.getItems() != null) {
+                items.addAll(item.getItems());
+            } else {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private static DocParamPushParam findParam(List<DocParamPushParam> params, String... names) {
+        DocParamPushParam param = null;
+        for (String name : names) {
+            param = params.stream()
+                    .filter(p -> name.equals(p.getName()))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("not found: " + name));
+            params = param.getChildren();
+        }
+        return param;
+    }
+
+    /**
+     * 生成OpenAPI文档，每个路径有GET、POST两个接口，共用同一组schema
+     *
+     * @param pathCount 路径数量
+     */
+    static String buildContent(int pathCount) {
+        JSONObject schemas = new JSONObject(true);
+        schemas.put("User", object(
+                "name", property("string", "用户名"),
+                "age", property("integer", "年龄")
+        ));
+        schemas.put("OrderItem", object(
+                "sku", property("string", "商品编码"),
+                "order", ref("OrderDTO")
+        ));
+        schemas.put("OrderDTO", object(
+                "id", property("integer", "订单id"),
+                "status", enumProperty("状态", "PAID", "SHIPPED"),
+                "buyer", ref("User"),
+                "seller", ref("User"),
+                "items", array(ref("OrderItem")),
+                "tags", array(property("string", "标签"))
+        ));
+        schemas.put("PageOrderDTO", object(
+                "total", property("integer", "总数"),
+                "list", array(ref("OrderDTO"))
+        ));
+        schemas.put("ResultPageOrderDTO", object(
+                "code", property("string", "状态码"),
+                "data", ref("PageOrderDTO"),
+                "msg", property("string", "消息")
+        ));
+        JSONObject paths = new JSONObject(true);
+        for (int i = 0; i < pathCount; i++) {
+            JSONObject get = operation("tag" + i % 10, "查询订单" + i);
+            JSONObject pathParam = new JSONObject(true);
+            pathParam.put("name", "id");
+            pathParam.put("in", "query");
+            pathParam.put("schema", property("integer", "id"));
+            get.put("parameters", Collections.singletonList(pathParam));
+            get.put("responses", response(ref("ResultPageOrderDTO")));
+
+            JSONObject post = operation("tag" + i % 10, "保存订单" + i);
+            JSONObject requestBody = new JSONObject(true);
+            requestBody.put("content", Collections.singletonMap("application/json", Collections.singletonMap("schema", ref("OrderDTO"))));
+            post.put("requestBody", requestBody);
+            post.put("responses", response(ref("ResultPageOrderDTO")));
+
+            JSONObject path = new JSONObject(true);
+            path.put("get", get);
+            path.put("post", post);
+            paths.put("/order/" + i, path);
+        }
+        JSONObject info = new JSONObject(true);
+        info.put("title", "order");
+        info.put("version", "1.0");
+        JSONObject openAPI = new JSONObject(true);
+        openAPI.put("openapi", "3.0.1");
+        openAPI.put("info", info);
+        openAPI.put("paths", paths);
+        openAPI.put("components", Collections.singletonMap("schemas", schemas));
+        return openAPI.toJSONString();
+    }
+
+    private static JSONObject operation(String tag, String summary) {
+        JSONObject operation = new JSONObject(true);
+        operation.put("tags", Collections.singletonList(tag));
+        operation.put("summary", summary);
+        return operation;
+    }
+
+    private static JSONObject response(JSONObject schema) {
+        JSONObject ok = new JSONObject(true);
+        ok.put("description", "OK");
+        ok.put("content", Collections.singletonMap("*/*", Collections.singletonMap("schema", schema)));
+        return new JSONObject(Collections.singletonMap("200", ok));
+    }
+
+    private static JSONObject object(Object... nameAndSchemas) {
+        JSONObject properties = new JSONObject(true);
+        for (int i = 0; i < nameAndSchemas.length; i += 2) {
+            properties.put((String) nameAndSchemas[i], nameAndSchemas[i + 1]);
+        }
+        JSONObject schema = new JSONObject(true);
+        schema.put("type", "object");
+        schema.put("properties", properties);
+        return schema;
+    }
+
+    private static JSONObject property(String type, String description) {
+        JSONObject schema = new JSONObject(true);
+        schema.put("type", type);
+        schema.put("description", description);
+        return schema;
+    }
+
+    private static JSONObject enumProperty(String description, String... values) {
+        JSONObject schema = property("string", description);
+        schema.put("enum", values);
+        return schema;
+    }
+
+    private static JSONObject array(JSONObject items) {
+        JSONObject schema = new JSONObject(true);
+        schema.put("type", "array");
+        schema.put("items", items);
+        return schema;
+    }
+
+    private static JSONObject ref(String name) {
+        return new JSONObject(Collections.singletonMap("$ref", "#/components/schemas/" + name));
+    }
+
+}
@@ -0,0 +1,160 @@
+package cn.torna;
+
+import cn.torna.manager.doc.DocParser;
+import cn.torna.manager.doc.swagger.DocBean;
+import cn.torna.manager.doc.swagger.DocParameter;
+import cn.torna.manager.doc.swagger.SwaggerDocParserV2;
+import cn.torna.manager.doc.swagger.SwaggerDocParserV3;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 同一个解析器同时解析多个文档，结果与单独解析一致
+ *
+ * @author tanghc
+ */
+public class SwaggerDocParserTest {
+
+    /** DocParameter.id是全局自增的，不参与比较 */
+    private static final SimplePropertyPreFilter IGNORE_ID = new SimplePropertyPreFilter(DocParameter.class);
+
+    static {
+        IGNORE_ID.getExcludes().add("id");
+    }
+
+    private final DocParser<DocBean> docParserV2 = new SwaggerDocParserV2();
+    private final DocParser<DocBean> docParserV3 = new SwaggerDocParserV3();
+
+    @Test
+    public void testParse() {
+        DocBean docBean = docParserV2.parseJson(buildV2Content(3));
+        Assertions.assertEquals(1, docBean.getDocModules().size());
+        Assertions.assertEquals(3, docBean.getDocModules().get(0).getItems().size());
+        System.out.println(JSON.toJSONString(docBean));
+
+        docBean = docParserV3.parseJson(SwaggerApiConvertTest.buildContent(3));
+        Assertions.assertEquals(3, docBean.getDocModules().size());
+        System.out.println(JSON.toJSONString(docBean));
+    }
+
+    @Test
+    public void testConcurrentParse() throws Exception {
+        List<DocParser<DocBean>> parsers = new ArrayList<>();
+        List<String> contents = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            parsers.add(docParserV2);
+            contents.add(buildV2Content(i * 10));
+            parsers.add(docParserV3);
+            contents.add(SwaggerApiConvertTest.buildContent(i * 10));
+        }
+        List<String> expects = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i++) {
+            expects.add(JSON.toJSONString(parsers.get(i).parseJson(contents.get(i)), IGNORE_ID));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int n = 0; n < 20; n++) {
+                for (int i = 0; i < contents.size(); i++) {
+                    DocParser<DocBean> parser = parsers.get(i);
+                    String content = contents.get(i);
+                    futures.add(executorService.submit(() -> JSON.toJSONString(parser.parseJson(content), IGNORE_ID)));
+                }
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Assertions.assertEquals(expects.get(i % contents.size()), futures.get(i).get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * 生成swagger2文档，OrderDTO和OrderItem相互引用
+     *
+     * @param pathCount 路径数量
+     */
+    private static String buildV2Content(int pathCount) {
+        JSONObject definitions = new JSONObject(true);
+        definitions.put("OrderItem", object("OrderItem",
+                "sku", property("string", "商品编码"),
+                "order", ref("OrderDTO")
+        ));
+        definitions.put("OrderDTO", object("OrderDTO",
+                "id", property("integer", "订单id"),
+                "items", array(ref("OrderItem"))
+        ));
+        definitions.put("ResultOrderDTO", object("Result«OrderDTO»",
+                "code", property("string", "状态码"),
+                "data", ref("OrderDTO")
+        ));
+        JSONObject paths = new JSONObject(true);
+        for (int i = 0; i < pathCount; i++) {
+            JSONObject body = new JSONObject(true);
+            body.put("name", "order");
+            body.put("in", "body");
+            body.put("schema", ref("OrderDTO"));
+            JSONObject ok = new JSONObject(true);
+            ok.put("description", "OK");
+            ok.put("schema", ref("ResultOrderDTO"));
+            JSONObject post = new JSONObject(true);
+            post.put("tags", Collections.singletonList("order"));
+            post.put("summary", "保存订单" + i);
+            post.put("parameters", Collections.singletonList(body));
+            post.put("responses", Collections.singletonMap("200", ok));
+            paths.put("/order/" + i, Collections.singletonMap("post", post));
+        }
+        JSONObject info = new JSONObject(true);
+        info.put("title", "order");
+        info.put("version", "1.0");
+        JSONObject swagger = new JSONObject(true);
+        swagger.put("swagger", "2.0");
+        swagger.put("info", info);
+        swagger.put("host", "localhost:8080");
+        swagger.put("basePath", "/");
+        swagger.put("paths", paths);
+        swagger.put("definitions", definitions);
+        return swagger.toJSONString();
+    }
+
+    private static JSONObject object(String title, Object... nameAndSchemas) {
+        JSONObject properties = new JSONObject(true);
+        for (int i = 0; i < nameAndSchemas.length; i += 2) {
+            properties.put((String) nameAndSchemas[i], nameAndSchemas[i + 1]);
+        }
+        JSONObject schema = new JSONObject(true);
+        schema.put("type", "object");
+        schema.put("title", title);
+        schema.put("properties", properties);
+        return schema;
+    }
+
+    private static JSONObject property(String type, String description) {
+        JSONObject schema = new JSONObject(true);
+        schema.put("type", type);
+        schema.put("description", description);
+        return schema;
+    }
+
+    private static JSONObject array(JSONObject items) {
+        JSONObject schema = new JSONObject(true);
+        schema.put("type", "array");
+        schema.put("items", items);
+        return schema;
+    }
+
+    private static JSONObject ref(String name) {
+        return new JSONObject(Collections.singletonMap("$ref", "#/definitions/" + name));
+    }
+
+}
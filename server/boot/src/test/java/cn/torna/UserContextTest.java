@@ -0,0 +1,93 @@
+package cn.torna;
+
+import cn.torna.common.bean.ConfigSnapshot;
+import cn.torna.common.bean.Configs;
+import cn.torna.common.bean.User;
+import cn.torna.common.bean.UserCacheManager;
+import cn.torna.common.context.SpringContext;
+import cn.torna.common.exception.LoginFailureException;
+import cn.torna.common.util.IdUtil;
+import cn.torna.common.util.JwtUtil;
+import cn.torna.web.config.UserContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Collections;
+
+/**
+ * 登录校验，校验结果缓存
+ *
+ * @author tanghc
+ */
+public class UserContextTest {
+
+    private static final String SECRET = "CHezCvjte^WHy5^#MqSVx9A%6.F$eV";
+    private static final long USER_ID = 1;
+    private static final MockEnvironment ENVIRONMENT = new MockEnvironment().withProperty("torna.jwt.secret", SECRET);
+
+    private static final User USER = Mockito.mock(User.class);
+
+    @BeforeAll
+    public static void init() {
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.setEnvironment(ENVIRONMENT);
+        context.getBeanFactory().registerSingleton("userCacheManager", new UserCacheManager() {
+            @Override
+            public User getUser(long userId) {
+                return userId == USER_ID ? USER : null;
+            }
+
+            @Override
+            public void saveUser(User user) {
+            }
+        });
+        context.refresh();
+        SpringContext.setApplicationContext(context);
+        Configs.setSnapshot(new ConfigSnapshot(Collections.emptyMap(), ENVIRONMENT::getProperty));
+    }
+
+    @Test
+    public void testGetUser() {
+        String token = createToken(USER_ID);
+        Assertions.assertSame(USER, UserContext.getUser(buildRequest(token)));
+        // 命中缓存
+        Assertions.assertSame(USER, UserContext.getUser(buildRequest(token)));
+        // 用户id和jwt不匹配
+        String errorToken = IdUtil.encode(2L) + token.substring(token.indexOf(':'));
+        Assertions.assertThrows(LoginFailureException.class, () -> UserContext.getUser(buildRequest(errorToken)));
+        // 签名不正确
+        String errorSign = token.substring(0, token.length() - 2) + "AA";
+        Assertions.assertThrows(LoginFailureException.class, () -> UserContext.getUser(buildRequest(errorSign)));
+    }
+
+    @Test
+    public void testSecretChanged() {
+        String token = createToken(USER_ID);
+        Assertions.assertSame(USER, UserContext.getUser(buildRequest(token)));
+        // 系统配置中修改了secret，之前通过校验的token也要重新校验
+        Configs.setSnapshot(new ConfigSnapshot(Collections.singletonMap("torna.jwt.secret", "new-secret"), ENVIRONMENT::getProperty));
+        try {
+            Assertions.assertThrows(LoginFailureException.class, () -> UserContext.getUser(buildRequest(token)));
+        } finally {
+            Configs.setSnapshot(new ConfigSnapshot(Collections.emptyMap(), ENVIRONMENT::getProperty));
+        }
+        Assertions.assertSame(USER, UserContext.getUser(buildRequest(token)));
+    }
+
+    private static String createToken(long userId) {
+        String jwt = JwtUtil.createJwt(Collections.singletonMap("id", String.valueOf(userId)), 1, SECRET);
+        return IdUtil.encode(userId) + ":" + jwt;
+    }
+
+    private static MockHttpServletRequest buildRequest(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(UserContext.HEADER_TOKEN, UserContext.JWT_PREFIX + token);
+        return request;
+    }
+
+}
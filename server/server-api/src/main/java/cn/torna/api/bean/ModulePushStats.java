@@ -0,0 +1,33 @@
+package cn.torna.api.bean;
+
+import lombok.Data;
+
+/**
+ * 模块推送队列统计
+ *
+ * @author tanghc
+ */
+@Data
+public class ModulePushStats {
+
+    private Long moduleId;
+
+    /** 排队中的推送数量 */
+    private Integer queueSize;
+
+    /** 是否有推送正在执行 */
+    private Boolean running;
+
+    /** 已完成的推送数量 */
+    private Long completedCount;
+
+    /** 最近一次推送的排队时间，毫秒 */
+    private Long lastWaitMillis;
+
+    /** 最长排队时间，毫秒 */
+    private Long maxWaitMillis;
+
+    /** 平均排队时间，毫秒 */
+    private Long avgWaitMillis;
+
+}
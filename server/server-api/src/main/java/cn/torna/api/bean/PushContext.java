@@ -2,20 +2,58 @@ package cn.torna.api.bean;
 
 import cn.torna.service.dto.DocInfoDTO;
 import cn.torna.service.dto.DocMeta;
-import lombok.AllArgsConstructor;
+import cn.torna.service.dto.DocMetaIndex;
 import lombok.Data;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Data
-@AllArgsConstructor
 public class PushContext {
 
-    private List<DocMeta> docMetas;
+    /** 模块下已存在的文档，key：dataId */
+    private DocMetaIndex docMetaIndex;
     private List<DocInfoDTO> contentChangedDocs;
 
+    /** 是否增量推送 */
+    private boolean incremental;
+
+    /** 本次推送的文档dataId，包括分类 */
+    private Set<String> pushedDataIds = new HashSet<>();
+
+    /** 新增的文档数量 */
+    private int insertCount;
+
+    /** 修改的文档数量 */
+    private int updateCount;
+
+    /** 内容没有变化跳过保存的文档数量 */
+    private int skipCount;
+
+    public PushContext(List<DocMeta> docMetas, List<DocInfoDTO> contentChangedDocs) {
+        this.docMetaIndex = DocMetaIndex.of(docMetas);
+        this.contentChangedDocs = contentChangedDocs;
+    }
+
     public void addChangedDoc(DocInfoDTO docInfoDTO) {
         this.contentChangedDocs.add(docInfoDTO);
     }
 
+    public void addPushedDataId(String dataId) {
+        this.pushedDataIds.add(dataId);
+    }
+
+    public void incrementInsertCount() {
+        this.insertCount++;
+    }
+
+    public void incrementUpdateCount() {
+        this.updateCount++;
+    }
+
+    public void incrementSkipCount() {
+        this.skipCount++;
+    }
+
 }
@@ -0,0 +1,49 @@
+package cn.torna.api.bean;
+
+import lombok.Data;
+
+/**
+ * 推送线程池统计
+ *
+ * @author tanghc
+ */
+@Data
+public class PushExecutorStats {
+
+    /** 推送线程数 */
+    private Integer poolSize;
+
+    /** 正在执行推送的线程数 */
+    private Integer activeCount;
+
+    /** 排队数量上限 */
+    private Integer queueCapacity;
+
+    /** 排队中及执行中的推送数量 */
+    private Integer pendingCount;
+
+    /** 排队中及执行中的推送内容大小，字节 */
+    private Long pendingBytes;
+
+    /** 推送内容大小上限，字节 */
+    private Long maxPendingBytes;
+
+    /** 已接收的推送数量 */
+    private Long submittedCount;
+
+    /** 已完成的推送数量，包括失败的 */
+    private Long completedCount;
+
+    /** 执行失败的推送数量 */
+    private Long failedCount;
+
+    /** 排队已满被拒绝的推送数量 */
+    private Long rejectedCount;
+
+    /** 平均执行耗时，毫秒 */
+    private Long avgCostMillis;
+
+    /** 最长执行耗时，毫秒 */
+    private Long maxCostMillis;
+
+}
@@ -0,0 +1,64 @@
+package cn.torna.api.bean;
+
+import lombok.Getter;
+
+/**
+ * 推送任务，记录一次推送的执行状态
+ *
+ * @author tanghc
+ */
+@Getter
+public class PushJob {
+
+    private final String jobId;
+    private final long moduleId;
+    private final long createTime;
+
+    private volatile PushJobStatus status = PushJobStatus.QUEUED;
+    private volatile String message;
+    private volatile long startTime;
+    private volatile long endTime;
+    private volatile int insertCount;
+    private volatile int updateCount;
+    private volatile int skipCount;
+
+    public PushJob(String jobId, long moduleId) {
+        this.jobId = jobId;
+        this.moduleId = moduleId;
+        this.createTime = System.currentTimeMillis();
+    }
+
+    public void start() {
+        this.startTime = System.currentTimeMillis();
+        this.status = PushJobStatus.RUNNING;
+    }
+
+    public void success(PushContext pushContext) {
+        this.insertCount = pushContext.getInsertCount();
+        this.updateCount = pushContext.getUpdateCount();
+        this.skipCount = pushContext.getSkipCount();
+        this.finish(PushJobStatus.SUCCEEDED, null);
+    }
+
+    public void fail(String message) {
+        this.finish(PushJobStatus.FAILED, message);
+    }
+
+    private void finish(PushJobStatus status, String message) {
+        this.message = message;
+        this.endTime = System.currentTimeMillis();
+        this.status = status;
+    }
+
+    /**
+     * 执行耗时，毫秒，未开始返回0
+     */
+    public long getDuration() {
+        if (startTime == 0) {
+            return 0;
+        }
+        long end = endTime == 0 ? System.currentTimeMillis() : endTime;
+        return end - startTime;
+    }
+
+}
@@ -0,0 +1,17 @@
+package cn.torna.api.bean;
+
+/**
+ * 推送任务状态
+ *
+ * @author tanghc
+ */
+public enum PushJobStatus {
+    /** 排队中 */
+    QUEUED,
+    /** 执行中 */
+    RUNNING,
+    /** 推送成功 */
+    SUCCEEDED,
+    /** 推送失败 */
+    FAILED
+}
@@ -0,0 +1,168 @@
+package cn.torna.api.convert;
+
+import cn.torna.api.open.param.CodeParamPushParam;
+import cn.torna.api.open.param.DocParamPushParam;
+import cn.torna.api.open.param.DocPushItemParam;
+import cn.torna.api.open.param.DubboParam;
+import cn.torna.api.open.param.EnumInfoCreateParam;
+import cn.torna.api.open.param.EnumItemCreateParam;
+import cn.torna.api.open.param.HeaderParamPushParam;
+import cn.torna.service.dto.DocInfoDTO;
+import cn.torna.service.dto.DocParamDTO;
+import cn.torna.service.dto.DubboInfoDTO;
+import cn.torna.service.dto.EnumInfoDTO;
+import cn.torna.service.dto.EnumItemDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 推送文档转换成DocInfoDTO。
+ * <p>
+ * 直接调用get/set方法，不经过JSON序列化和反射，转换结果与{@code CopyUtil.deepCopy(param, DocInfoDTO.class)}一致：
+ * 推送参数中为null的字段不覆盖DocInfoDTO中的默认值，文件夹的子文档（items）不转换。
+ * DocPushItemParam、DocInfoDTO新增字段后需要同步修改这里。
+ *
+ * @author tanghc
+ */
+public final class DocPushItemConverter {
+
+    private DocPushItemConverter() {
+    }
+
+    /**
+     * 推送文档转换成DocInfoDTO，不包括子文档
+     *
+     * @param param 推送文档
+     * @return 返回DocInfoDTO
+     */
+    public static DocInfoDTO toDocInfoDTO(DocPushItemParam param) {
+        DocInfoDTO docInfoDTO = new DocInfoDTO();
+        docInfoDTO.setName(param.getName());
+        docInfoDTO.setDescription(param.getDescription());
+        docInfoDTO.setAuthor(param.getAuthor());
+        docInfoDTO.setDeprecated(param.getDeprecated());
+        docInfoDTO.setType(param.getType());
+        docInfoDTO.setUrl(param.getUrl());
+        docInfoDTO.setHttpMethod(param.getHttpMethod());
+        docInfoDTO.setContentType(param.getContentType());
+        docInfoDTO.setIsFolder(param.getIsFolder());
+        docInfoDTO.setIsShow(param.getIsShow());
+        docInfoDTO.setOrderIndex(param.getOrderIndex());
+        docInfoDTO.setIsRequestArray(param.getIsRequestArray());
+        docInfoDTO.setIsResponseArray(param.getIsResponseArray());
+        docInfoDTO.setRequestArrayType(param.getRequestArrayType());
+        docInfoDTO.setResponseArrayType(param.getResponseArrayType());
+        docInfoDTO.setDubboInfo(toDubboInfoDTO(param.getDubboInfo()));
+        if (param.getPathParams() != null) {
+            docInfoDTO.setPathParams(toList(param.getPathParams(), DocPushItemConverter::toDocParamDTO));
+        }
+        if (param.getHeaderParams() != null) {
+            docInfoDTO.setHeaderParams(toList(param.getHeaderParams(), DocPushItemConverter::toDocParamDTO));
+        }
+        if (param.getQueryParams() != null) {
+            docInfoDTO.setQueryParams(toList(param.getQueryParams(), DocPushItemConverter::toDocParamDTO));
+        }
+        if (param.getRequestParams() != null) {
+            docInfoDTO.setRequestParams(toList(param.getRequestParams(), DocPushItemConverter::toDocParamDTO));
+        }
+        if (param.getResponseParams() != null) {
+            docInfoDTO.setResponseParams(toList(param.getResponseParams(), DocPushItemConverter::toDocParamDTO));
+        }
+        if (param.getErrorCodeParams() != null) {
+            docInfoDTO.setErrorCodeParams(toList(param.getErrorCodeParams(), DocPushItemConverter::toDocParamDTO));
+        }
+        return docInfoDTO;
+    }
+
+    public static DocParamDTO toDocParamDTO(DocParamPushParam param) {
+        DocParamDTO docParamDTO = new DocParamDTO();
+        docParamDTO.setName(param.getName());
+        docParamDTO.setType(param.getType());
+        docParamDTO.setRequired(param.getRequired());
+        docParamDTO.setMaxLength(param.getMaxLength());
+        docParamDTO.setExample(param.getExample());
+        docParamDTO.setDescription(param.getDescription());
+        docParamDTO.setParentId(param.getParentId());
+        docParamDTO.setEnumInfo(toEnumInfoDTO(param.getEnumInfo()));
+        docParamDTO.setCreateMode(param.getCreateMode());
+        docParamDTO.setModifyMode(param.getModifyMode());
+        docParamDTO.setIsDeleted(param.getIsDeleted());
+        docParamDTO.setOrderIndex(param.getOrderIndex());
+        if (param.getChildren() != null) {
+            docParamDTO.setChildren(toList(param.getChildren(), DocPushItemConverter::toDocParamDTO));
+        }
+        return docParamDTO;
+    }
+
+    public static DocParamDTO toDocParamDTO(HeaderParamPushParam param) {
+        DocParamDTO docParamDTO = new DocParamDTO();
+        docParamDTO.setName(param.getName());
+        docParamDTO.setRequired(param.getRequired());
+        docParamDTO.setExample(param.getExample());
+        docParamDTO.setDescription(param.getDescription());
+        docParamDTO.setCreateMode(param.getCreateMode());
+        docParamDTO.setModifyMode(param.getModifyMode());
+        docParamDTO.setIsDeleted(param.getIsDeleted());
+        return docParamDTO;
+    }
+
+    /**
+     * 错误码按属性名转换，code/msg/solution分别对应name/description/example
+     */
+    public static DocParamDTO toDocParamDTO(CodeParamPushParam param) {
+        DocParamDTO docParamDTO = new DocParamDTO();
+        docParamDTO.setName(param.getName());
+        docParamDTO.setDescription(param.getDescription());
+        docParamDTO.setExample(param.getExample());
+        docParamDTO.setCreateMode(param.getCreateMode());
+        docParamDTO.setModifyMode(param.getModifyMode());
+        docParamDTO.setIsDeleted(param.getIsDeleted());
+        return docParamDTO;
+    }
+
+    private static DubboInfoDTO toDubboInfoDTO(DubboParam param) {
+        if (param == null) {
+            return null;
+        }
+        DubboInfoDTO dubboInfoDTO = new DubboInfoDTO();
+        dubboInfoDTO.setProtocol(param.getProtocol());
+        dubboInfoDTO.setDependency(param.getDependency());
+        dubboInfoDTO.setAuthor(param.getAuthor());
+        dubboInfoDTO.setInterfaceName(param.getInterfaceName());
+        return dubboInfoDTO;
+    }
+
+    private static EnumInfoDTO toEnumInfoDTO(EnumInfoCreateParam param) {
+        if (param == null) {
+            return null;
+        }
+        EnumInfoDTO enumInfoDTO = new EnumInfoDTO();
+        enumInfoDTO.setName(param.getName());
+        enumInfoDTO.setDescription(param.getDescription());
+        if (param.getItems() != null) {
+            enumInfoDTO.setItems(toList(param.getItems(), DocPushItemConverter::toEnumItemDTO));
+        }
+        return enumInfoDTO;
+    }
+
+    private static EnumItemDTO toEnumItemDTO(EnumItemCreateParam param) {
+        EnumItemDTO enumItemDTO = new EnumItemDTO();
+        enumItemDTO.setName(param.getName());
+        enumItemDTO.setType(param.getType());
+        enumItemDTO.setValue(param.getValue());
+        enumItemDTO.setDescription(param.getDescription());
+        return enumItemDTO;
+    }
+
+    private static <F, T> List<T> toList(List<F> from, Function<F, T> converter) {
+        List<T> list = new ArrayList<>(from.size());
+        for (F item : from) {
+            // 与JSON转换保持一致，null元素原样保留
+            list.add(item == null ? null : converter.apply(item));
+        }
+        return list;
+    }
+
+}
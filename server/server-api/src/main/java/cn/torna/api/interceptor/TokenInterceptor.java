@@ -24,14 +24,16 @@ public class TokenInterceptor extends ApiInterceptorAdapter {
         DEFAULT_USER.setId(99999L);
     }
 
+    /** 拦截器不是spring管理的，第一次使用时再获取 */
+    private volatile ModuleService moduleService;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object serviceObj, Object argu) throws Exception {
         String accessToken = ApiContext.getAccessToken();
         if (StringUtils.isEmpty(accessToken)) {
             throw Errors.ERROR_ACCESS_TOKEN.getException();
         }
-        ModuleService moduleService = SpringContext.getBean(ModuleService.class);
-        Module module = moduleService.getByToken(accessToken);
+        Module module = getModuleService().getByToken(accessToken);
         if (module == null) {
             throw Errors.ERROR_ACCESS_TOKEN.getException();
         }
@@ -44,6 +46,13 @@ public class TokenInterceptor extends ApiInterceptorAdapter {
         return true;
     }
 
+    private ModuleService getModuleService() {
+        if (moduleService == null) {
+            moduleService = SpringContext.getBean(ModuleService.class);
+        }
+        return moduleService;
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object serviceObj, Object argu, Object result, Exception e) throws Exception {
         RequestContext.getCurrentContext().reset();
@@ -0,0 +1,344 @@
+package cn.torna.api.manager;
+
+import cn.torna.api.bean.ModulePushStats;
+import cn.torna.api.bean.PushExecutorStats;
+import cn.torna.common.exception.ErrorCode;
+import cn.torna.common.thread.MyNamedThreadFactory;
+import com.gitee.easyopen.exception.ApiException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 按模块调度文档推送任务。
+ * <p>
+ * 同一个模块的推送按提交顺序依次执行，不同模块的推送在推送专用线程池中并行执行。
+ * 每个模块只会占用线程池中的一个线程，排队中的任务不会阻塞线程。
+ * <p>
+ * 排队中的推送数量和推送内容大小有上限，超出上限时拒绝推送，SDK收到繁忙错误码后可稍后重试。
+ * <p>
+ * 模块的推送全部执行完后回收该模块的队列，统计信息只包含排队中或执行中的模块。
+ *
+ * @author tanghc
+ */
+@Component
+@Slf4j
+public class ModulePushScheduler implements InitializingBean, DisposableBean {
+
+    /**
+     * key: moduleId
+     */
+    private final Map<Long, ModulePushQueue> queueMap = new ConcurrentHashMap<>(64);
+
+    /** 推送线程数 */
+    @Value("${torna.push.thread-pool-size:${torna.thread-pool-size:4}}")
+    private int poolSize;
+
+    /** 所有模块排队中的推送数量上限 */
+    @Value("${torna.push.queue-capacity:200}")
+    private int queueCapacity;
+
+    /** 所有模块排队中的推送内容大小上限，单位MB */
+    @Value("${torna.push.max-pending-mb:512}")
+    private long maxPendingMb;
+
+    /** 队列满时等待的毫秒数，0：直接拒绝 */
+    @Value("${torna.push.reject-wait-millis:0}")
+    private long rejectWaitMillis;
+
+    private ThreadPoolExecutor executor;
+
+    private final Object capacityLock = new Object();
+    private int pendingCount;
+    private long pendingBytes;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong totalCostMillis = new AtomicLong();
+    private final AtomicLong maxCostMillis = new AtomicLong();
+
+    /**
+     * 提交推送任务
+     *
+     * @param moduleId 模块id
+     * @param bytes    推送内容大小，用来限制排队任务占用的内存
+     * @param task     推送任务
+     * @param onReject 任务已进入排队但被线程池拒绝时回调，参数为拒绝原因
+     * @throws ApiException 排队已满时抛出，错误码{@link ErrorCode#PUSH_BUSY}
+     */
+    public void submit(long moduleId, long bytes, Runnable task, Consumer<String> onReject) {
+        this.acquire(bytes);
+        submittedCount.incrementAndGet();
+        PushTask pushTask = new PushTask(task, bytes, onReject);
+        ModulePushQueue queue;
+        do {
+            // 队列刚好被回收时重新创建
+            queue = queueMap.computeIfAbsent(moduleId, ModulePushQueue::new);
+        } while (!queue.offer(pushTask));
+    }
+
+    private void acquire(long bytes) {
+        long maxPendingBytes = maxPendingMb * 1024 * 1024;
+        long deadline = System.currentTimeMillis() + rejectWaitMillis;
+        synchronized (capacityLock) {
+            while (pendingCount >= queueCapacity
+                    // 单个推送超过上限时，等其它推送完成后再放行，避免永远无法推送
+                    || (pendingCount > 0 && pendingBytes + bytes > maxPendingBytes)) {
+                long waitMillis = deadline - System.currentTimeMillis();
+                if (waitMillis <= 0) {
+                    rejectedCount.incrementAndGet();
+                    log.warn("【PUSH】推送排队已满，拒绝推送，排队数量：{}，排队内容大小：{}KB", pendingCount, pendingBytes / 1024);
+                    throw new ApiException(ErrorCode.PUSH_BUSY.getMsg(), ErrorCode.PUSH_BUSY.getCode());
+                }
+                try {
+                    capacityLock.wait(waitMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejectedCount.incrementAndGet();
+                    throw new ApiException(ErrorCode.PUSH_BUSY.getMsg(), ErrorCode.PUSH_BUSY.getCode());
+                }
+            }
+            pendingCount++;
+            pendingBytes += bytes;
+        }
+    }
+
+    private void release(long bytes) {
+        synchronized (capacityLock) {
+            pendingCount--;
+            pendingBytes -= bytes;
+            capacityLock.notifyAll();
+        }
+    }
+
+    /**
+     * 返回各模块推送统计
+     *
+     * @return 返回统计信息
+     */
+    public List<ModulePushStats> listStats() {
+        List<ModulePushStats> list = new ArrayList<>(queueMap.size());
+        for (ModulePushQueue queue : queueMap.values()) {
+            list.add(queue.getStats());
+        }
+        return list;
+    }
+
+    /**
+     * 返回模块推送统计
+     *
+     * @param moduleId 模块id
+     * @return 没有排队中或执行中的推送返回null
+     */
+    public ModulePushStats getStats(long moduleId) {
+        ModulePushQueue queue = queueMap.get(moduleId);
+        return queue == null ? null : queue.getStats();
+    }
+
+    /**
+     * 返回推送线程池统计
+     *
+     * @return 返回统计信息
+     */
+    public PushExecutorStats getExecutorStats() {
+        PushExecutorStats stats = new PushExecutorStats();
+        stats.setPoolSize(poolSize);
+        stats.setActiveCount(executor.getActiveCount());
+        synchronized (capacityLock) {
+            stats.setQueueCapacity(queueCapacity);
+            stats.setPendingCount(pendingCount);
+            stats.setPendingBytes(pendingBytes);
+        }
+        stats.setMaxPendingBytes(maxPendingMb * 1024 * 1024);
+        stats.setSubmittedCount(submittedCount.get());
+        long completed = completedCount.get();
+        stats.setCompletedCount(completed);
+        stats.setFailedCount(failedCount.get());
+        stats.setRejectedCount(rejectedCount.get());
+        stats.setAvgCostMillis(completed == 0 ? 0 : totalCostMillis.get() / completed);
+        stats.setMaxCostMillis(maxCostMillis.get());
+        return stats;
+    }
+
+    private void recordCost(long costMillis, boolean success) {
+        completedCount.incrementAndGet();
+        if (!success) {
+            failedCount.incrementAndGet();
+        }
+        totalCostMillis.addAndGet(costMillis);
+        maxCostMillis.accumulateAndGet(costMillis, Math::max);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (poolSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("torna.push.thread-pool-size and torna.push.queue-capacity must be gt 0");
+        }
+        // 每个模块最多只有一个任务在线程池中，容量与排队上限一致即可保证不会被线程池拒绝
+        executor = new ThreadPoolExecutor(poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new MyNamedThreadFactory("torna-push"));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdown();
+    }
+
+    private static class PushTask {
+        private final Runnable runnable;
+        private final long bytes;
+        private final Consumer<String> onReject;
+        private final long submitTime;
+
+        PushTask(Runnable runnable, long bytes, Consumer<String> onReject) {
+            this.runnable = runnable;
+            this.bytes = bytes;
+            this.onReject = onReject;
+            this.submitTime = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 单个模块的推送队列，同一时间只有一个线程在消费
+     */
+    private class ModulePushQueue {
+        private final long moduleId;
+        private final Queue<PushTask> tasks = new ArrayDeque<>();
+        private boolean running;
+        /** 已从queueMap中移除，不能再放入任务 */
+        private boolean removed;
+
+        private long startedCount;
+        private long completedCount;
+        private long lastWaitMillis;
+        private long maxWaitMillis;
+        private long totalWaitMillis;
+
+        ModulePushQueue(long moduleId) {
+            this.moduleId = moduleId;
+        }
+
+        /**
+         * 放入任务
+         *
+         * @param task 推送任务
+         * @return 队列已被回收返回false，需要重新获取队列
+         */
+        boolean offer(PushTask task) {
+            synchronized (this) {
+                if (removed) {
+                    return false;
+                }
+                tasks.offer(task);
+                if (running) {
+                    return true;
+                }
+                running = true;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 线程池已关闭或已满，丢弃排队中的任务，否则running一直为true，后续推送永远不会执行
+                List<PushTask> dropped;
+                synchronized (this) {
+                    dropped = new ArrayList<>(tasks);
+                    tasks.clear();
+                    running = false;
+                    this.remove();
+                }
+                String reason = "推送线程池拒绝执行：" + e.getMessage();
+                for (PushTask droppedTask : dropped) {
+                    release(droppedTask.bytes);
+                    rejectedCount.incrementAndGet();
+                    // 当前调用方直接收到异常，其它调用方的任务通过回调通知
+                    if (droppedTask != task) {
+                        notifyReject(droppedTask, reason);
+                    }
+                }
+                log.warn("【PUSH】推送线程池拒绝执行，丢弃推送数量：{}，moduleId：{}", dropped.size(), moduleId);
+                throw new ApiException(ErrorCode.PUSH_BUSY.getMsg(), ErrorCode.PUSH_BUSY.getCode());
+            }
+            return true;
+        }
+
+        private void notifyReject(PushTask task, String reason) {
+            try {
+                task.onReject.accept(reason);
+            } catch (Throwable e) {
+                log.error("【PUSH】推送拒绝回调执行失败，moduleId：{}", moduleId, e);
+            }
+        }
+
+        /**
+         * 回收空闲的队列，需要在synchronized中调用
+         */
+        private void remove() {
+            removed = true;
+            queueMap.remove(moduleId, this);
+        }
+
+        private void drain() {
+            while (true) {
+                PushTask task;
+                synchronized (this) {
+                    task = tasks.poll();
+                    if (task == null) {
+                        running = false;
+                        this.remove();
+                        return;
+                    }
+                    long waitMillis = System.currentTimeMillis() - task.submitTime;
+                    startedCount++;
+                    lastWaitMillis = waitMillis;
+                    maxWaitMillis = Math.max(maxWaitMillis, waitMillis);
+                    totalWaitMillis += waitMillis;
+                }
+                long startTime = System.currentTimeMillis();
+                boolean success = false;
+                try {
+                    task.runnable.run();
+                    success = true;
+                } catch (Throwable e) {
+                    log.error("【PUSH】推送任务执行失败，moduleId：{}", moduleId, e);
+                } finally {
+                    release(task.bytes);
+                    recordCost(System.currentTimeMillis() - startTime, success);
+                    synchronized (this) {
+                        completedCount++;
+                    }
+                }
+            }
+        }
+
+        synchronized ModulePushStats getStats() {
+            ModulePushStats stats = new ModulePushStats();
+            stats.setModuleId(moduleId);
+            stats.setQueueSize(tasks.size());
+            stats.setRunning(running);
+            stats.setCompletedCount(completedCount);
+            stats.setLastWaitMillis(lastWaitMillis);
+            stats.setMaxWaitMillis(maxWaitMillis);
+            stats.setAvgWaitMillis(startedCount == 0 ? 0 : totalWaitMillis / startedCount);
+            return stats;
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package cn.torna.api.manager;
+
+import cn.torna.api.bean.PushJob;
+import cn.torna.common.util.IdGen;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 保存推送任务状态，只保存在本机内存中，超过数量或过期后删除
+ *
+ * @author tanghc
+ */
+@Component
+public class PushJobManager implements InitializingBean {
+
+    @Value("${torna.push.job.max-size:10000}")
+    private int maxSize;
+
+    @Value("${torna.push.job.timeout-minutes:60}")
+    private int timeoutMinutes;
+
+    // key: jobId
+    private Cache<String, PushJob> jobCache;
+
+    /**
+     * 创建推送任务
+     *
+     * @param moduleId 模块id
+     * @return 返回推送任务
+     */
+    public PushJob createJob(long moduleId) {
+        PushJob pushJob = new PushJob(IdGen.nextId(), moduleId);
+        jobCache.put(pushJob.getJobId(), pushJob);
+        return pushJob;
+    }
+
+    /**
+     * 查询推送任务
+     *
+     * @param jobId    任务id
+     * @param moduleId 模块id，只能查询自己模块下的任务
+     * @return 不存在或已过期返回null
+     */
+    public PushJob getJob(String jobId, long moduleId) {
+        if (jobId == null) {
+            return null;
+        }
+        PushJob pushJob = jobCache.getIfPresent(jobId);
+        if (pushJob == null || !Objects.equals(pushJob.getModuleId(), moduleId)) {
+            return null;
+        }
+        return pushJob;
+    }
+
+    public void removeJob(String jobId) {
+        jobCache.invalidate(jobId);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (maxSize <= 0 || timeoutMinutes <= 0) {
+            throw new IllegalArgumentException("torna.push.job.max-size and torna.push.job.timeout-minutes must be gt 0");
+        }
+        jobCache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(timeoutMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+}
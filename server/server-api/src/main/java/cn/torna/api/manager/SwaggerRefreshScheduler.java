@@ -0,0 +1,160 @@
+package cn.torna.api.manager;
+
+import cn.torna.api.bean.RequestContext;
+import cn.torna.api.open.SwaggerRefreshApi;
+import cn.torna.common.bean.User;
+import cn.torna.common.bean.UserCacheManager;
+import cn.torna.common.thread.MyNamedThreadFactory;
+import cn.torna.dao.entity.Module;
+import cn.torna.dao.entity.ModuleSwaggerConfig;
+import cn.torna.service.ModuleService;
+import cn.torna.service.ModuleSwaggerConfigService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定时刷新通过url导入的swagger文档。
+ * <p>
+ * 每个模块在上次刷新后间隔interval-minutes再加上固定的随机偏移后刷新，避免同时导入的模块在同一时刻刷新。
+ * 下载时带上If-None-Match、If-Modified-Since，文档没有变化（304或内容md5相同）时不重新导入。
+ * 多台服务器通过gmt_refresh字段抢占，同一个模块只有一台服务器刷新。
+ * 默认关闭，设置torna.swagger-refresh.enable=true开启。
+ *
+ * @author tanghc
+ */
+@Component
+@Slf4j
+public class SwaggerRefreshScheduler implements InitializingBean, DisposableBean {
+
+    private static final String REFRESH_IP = "127.0.0.1";
+
+    @Autowired
+    private ModuleSwaggerConfigService moduleSwaggerConfigService;
+
+    @Autowired
+    private ModuleService moduleService;
+
+    @Autowired
+    private SwaggerRefreshApi swaggerRefreshApi;
+
+    @Autowired
+    private UserCacheManager userCacheManager;
+
+    @Value("${torna.swagger-refresh.enable:false}")
+    private boolean enable;
+
+    /** 刷新间隔，单位分钟 */
+    @Value("${torna.swagger-refresh.interval-minutes:60}")
+    private int intervalMinutes;
+
+    /** 随机偏移的最大值，单位秒 */
+    @Value("${torna.swagger-refresh.jitter-seconds:300}")
+    private int jitterSeconds;
+
+    /** 检查间隔，单位秒 */
+    @Value("${torna.swagger-refresh.check-interval-seconds:30}")
+    private int checkIntervalSeconds;
+
+    private ScheduledExecutorService scheduler;
+
+    private void check() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<ModuleSwaggerConfig> configs = moduleSwaggerConfigService.listRefreshConfigs();
+            for (ModuleSwaggerConfig config : configs) {
+                if (isDue(config, now)) {
+                    refresh(config);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("【SWAGGER】定时刷新检查失败, message:{}", e.getMessage());
+        }
+    }
+
+    private void refresh(ModuleSwaggerConfig config) {
+        // 其它服务器已经在刷新
+        if (!moduleSwaggerConfigService.tryRefresh(config)) {
+            return;
+        }
+        Long moduleId = config.getModuleId();
+        Module module = moduleService.getById(moduleId);
+        if (module == null) {
+            return;
+        }
+        User user = userCacheManager.getUser(module.getCreatorId());
+        if (user == null) {
+            log.warn("【SWAGGER】模块创建人不存在，不刷新，moduleId:{}", moduleId);
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            boolean changed = swaggerRefreshApi.refresh(moduleId, REFRESH_IP, user, false);
+            log.info("【SWAGGER】定时刷新完成，moduleId:{}, 文档是否变化:{}, 耗时:{}ms", moduleId, changed, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.warn("【SWAGGER】定时刷新失败，moduleId:{}", moduleId, e);
+        } finally {
+            RequestContext.getCurrentContext().reset();
+        }
+    }
+
+    /**
+     * 是否到了刷新时间
+     *
+     * @param config listRefreshConfigs()返回的配置
+     * @param now    当前时间
+     * @return 到了刷新时间返回true
+     */
+    boolean isDue(ModuleSwaggerConfig config, LocalDateTime now) {
+        LocalDateTime lastRefresh = config.getGmtRefresh() != null ? config.getGmtRefresh() : config.getGmtModified();
+        if (lastRefresh == null) {
+            return true;
+        }
+        LocalDateTime nextRefresh = lastRefresh
+                .plusMinutes(intervalMinutes)
+                .plusSeconds(getJitterSeconds(config.getId()));
+        return !nextRefresh.isAfter(now);
+    }
+
+    /**
+     * 每个配置固定的随机偏移，重启后不变
+     *
+     * @param id 配置id
+     * @return 返回[0, jitterSeconds)之间的秒数
+     */
+    long getJitterSeconds(long id) {
+        if (jitterSeconds <= 0) {
+            return 0;
+        }
+        return Math.floorMod(Long.hashCode(id * 0x9E3779B97F4A7C15L), jitterSeconds);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!enable) {
+            return;
+        }
+        if (intervalMinutes <= 0 || checkIntervalSeconds <= 0 || jitterSeconds < 0) {
+            throw new IllegalArgumentException("torna.swagger-refresh.interval-minutes and torna.swagger-refresh.check-interval-seconds must be gt 0");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new MyNamedThreadFactory("torna-swagger-refresh"));
+        scheduler.scheduleWithFixedDelay(this::check, checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+}
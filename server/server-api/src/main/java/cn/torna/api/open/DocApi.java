@@ -1,24 +1,31 @@
 package cn.torna.api.open;
 
 import cn.torna.api.bean.ApiUser;
+import cn.torna.api.bean.PushJob;
 import cn.torna.api.bean.PushContext;
 import cn.torna.api.bean.RequestContext;
+import cn.torna.api.convert.DocPushItemConverter;
+import cn.torna.api.manager.ModulePushScheduler;
+import cn.torna.api.manager.PushJobManager;
 import cn.torna.api.open.param.CategoryAddParam;
 import cn.torna.api.open.param.CategoryUpdateParam;
 import cn.torna.api.open.param.CodeParamPushParam;
 import cn.torna.api.open.param.DebugEnvParam;
 import cn.torna.api.open.param.DocPushItemParam;
 import cn.torna.api.open.param.DocPushParam;
+import cn.torna.api.open.param.DocPushStatusParam;
 import cn.torna.api.open.param.DubboParam;
 import cn.torna.api.open.result.DocCategoryResult;
+import cn.torna.api.open.result.DocPushResult;
+import cn.torna.api.open.result.DocPushStatusResult;
 import cn.torna.common.bean.Booleans;
 import cn.torna.common.bean.EnvironmentKeys;
 import cn.torna.common.bean.User;
 import cn.torna.common.enums.DocTypeEnum;
+import cn.torna.common.enums.OperationMode;
 import cn.torna.common.enums.UserSubscribeTypeEnum;
 import cn.torna.common.message.MessageEnum;
 import cn.torna.common.util.CopyUtil;
-import cn.torna.common.util.ThreadPoolUtil;
 import cn.torna.dao.entity.DocInfo;
 import cn.torna.dao.entity.DocParam;
 import cn.torna.dao.entity.Module;
@@ -30,7 +37,7 @@ import cn.torna.service.UserMessageService;
 import cn.torna.service.dto.DocFolderCreateDTO;
 import cn.torna.service.dto.DocInfoDTO;
 import cn.torna.service.dto.DocMeta;
-import cn.torna.service.dto.DocParamDTO;
+import cn.torna.service.dto.DocMetaIndex;
 import cn.torna.service.dto.MessageDTO;
 import cn.torna.service.dto.UpdateDocFolderDTO;
 import com.alibaba.fastjson.JSON;
@@ -46,13 +53,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 /**
  * @author tanghc
@@ -67,8 +79,8 @@ public class DocApi {
     private static final char SPLIT = '/';
     private static final String PREFIX = "://";
     private static final String PUSH_ERROR_MSG = "【%s】推送失败，请查看日志";
-
-    private final Object lock = new Object();
+    /** 无法获取请求体长度时，每个文档估算的大小 */
+    private static final long ESTIMATE_BYTES_PER_DOC = 16 * 1024;
 
     @Autowired
     private DocInfoService docInfoService;
@@ -85,10 +97,27 @@ public class DocApi {
     @Autowired
     private UserMessageService userMessageService;
 
+    @Autowired
+    private ModulePushScheduler modulePushScheduler;
+
+    @Autowired
+    private PushJobManager pushJobManager;
+
 
     @Api(name = "doc.push")
     @ApiDocMethod(description = "推送文档", order = 0, remark = "把第三方文档推送给Torna服务器")
-    public void pushDoc(DocPushParam param) {
+    public DocPushResult pushDoc(DocPushParam param) {
+        return pushDoc(param, null);
+    }
+
+    /**
+     * 推送文档
+     *
+     * @param param     推送参数
+     * @param onSuccess 推送成功后在推送线程中回调，可以为null
+     * @return 返回推送任务
+     */
+    public DocPushResult pushDoc(DocPushParam param, Runnable onSuccess) {
         RequestContext context = RequestContext.getCurrentContext();
         String token = context.getToken();
         Module module = context.getModule();
@@ -111,7 +140,63 @@ public class DocApi {
             ApiUser user = (ApiUser) context.getApiUser();
             user.setNickname(author);
         }
-        ThreadPoolUtil.execute(() -> doPush(param, context));
+        PushJob pushJob = pushJobManager.createJob(module.getId());
+        try {
+            // 同一个模块的推送按顺序执行，不同模块并行执行
+            modulePushScheduler.submit(module.getId(), getPushBytes(param),
+                    () -> doPush(param, context, pushJob, onSuccess),
+                    // 排队后被线程池拒绝
+                    pushJob::fail);
+        } catch (RuntimeException e) {
+            pushJobManager.removeJob(pushJob.getJobId());
+            throw e;
+        }
+        DocPushResult docPushResult = new DocPushResult();
+        docPushResult.setJobId(pushJob.getJobId());
+        return docPushResult;
+    }
+
+    @Api(name = "doc.push.status")
+    @ApiDocMethod(description = "查询推送结果", order = 1, remark = "根据doc.push返回的jobId查询推送状态，推送结果保留一段时间后删除。推送任务只保存在接收推送的Torna节点内存中，集群部署时需要将查询请求转发到同一个节点（如按token做会话保持），否则会返回任务不存在")
+    public DocPushStatusResult pushStatus(DocPushStatusParam param) {
+        long moduleId = RequestContext.getCurrentContext().getModuleId();
+        PushJob pushJob = pushJobManager.getJob(param.getJobId(), moduleId);
+        if (pushJob == null) {
+            // 推送任务只保存在本机内存中，查询请求落到其它节点时也会找不到
+            throw new ApiException("推送任务不存在、已过期或不在当前节点，jobId：" + param.getJobId());
+        }
+        DocPushStatusResult result = new DocPushStatusResult();
+        result.setJobId(pushJob.getJobId());
+        result.setStatus(pushJob.getStatus().name());
+        result.setMessage(pushJob.getMessage());
+        result.setDuration(pushJob.getDuration());
+        result.setInsertCount(pushJob.getInsertCount());
+        result.setUpdateCount(pushJob.getUpdateCount());
+        result.setSkipCount(pushJob.getSkipCount());
+        return result;
+    }
+
+    /**
+     * 推送内容大小，优先使用请求体长度，获取不到时按文档数量估算
+     */
+    private static long getPushBytes(DocPushParam param) {
+        HttpServletRequest request = ApiContext.getRequest();
+        long contentLength = request != null ? request.getContentLengthLong() : -1;
+        if (contentLength > 0) {
+            return contentLength;
+        }
+        return countItems(param.getApis()) * ESTIMATE_BYTES_PER_DOC;
+    }
+
+    private static long countItems(List<DocPushItemParam> items) {
+        if (items == null) {
+            return 0;
+        }
+        long count = items.size();
+        for (DocPushItemParam item : items) {
+            count += countItems(item.getItems());
+        }
+        return count;
     }
 
     private void checkSameFolder(DocPushParam param) {
@@ -161,7 +246,17 @@ public class DocApi {
         param.setApis(new ArrayList<>(folderItems.keySet()));
     }
 
-    private void doPush(DocPushParam param, RequestContext context) {
+    private void doPush(DocPushParam param, RequestContext context, PushJob pushJob, Runnable onSuccess) {
+        pushJob.start();
+        try {
+            this.savePushDocs(param, context, pushJob, onSuccess);
+        } catch (RuntimeException e) {
+            pushJob.fail(e.getMessage());
+            throw e;
+        }
+    }
+
+    private void savePushDocs(DocPushParam param, RequestContext context, PushJob pushJob, Runnable onSuccess) {
         String token = context.getToken();
         Module module = context.getModule();
         long moduleId = module.getId();
@@ -169,39 +264,88 @@ public class DocApi {
         long startTime = System.currentTimeMillis();
         List<DocMeta> docMetas = docInfoService.listDocMeta(moduleId);
         PushContext pushContext = new PushContext(docMetas, new ArrayList<>());
-        ThreadLocal<DocPushItemParam> docPushItemParamThreadLocal = new ThreadLocal<>();
-        synchronized (lock) {
-            tornaTransactionManager.execute(() -> {
-                // 设置调试环境
-                for (DebugEnvParam debugEnv : param.getDebugEnvs()) {
-                    if (StringUtils.isEmpty(debugEnv.getName()) || StringUtils.isEmpty(debugEnv.getUrl())) {
-                        continue;
-                    }
-                    moduleEnvironmentService.setDebugEnv(moduleId, debugEnv.getName(), debugEnv.getUrl());
-                }
-                // 替换文档
-                if (!isOverride(moduleId)
-                        && Booleans.isTrue(param.getIsReplace(), true)
-                        && !BooleanUtils.toBoolean(param.getIsOverride())) {
-                    // 先删除之前的文档
-                    this.deleteOpenAPIModuleDocs(moduleId);
+        pushContext.setIncremental(isIncremental(moduleId, param));
+        AtomicReference<DocPushItemParam> currentItem = new AtomicReference<>();
+        Boolean success = tornaTransactionManager.execute(() -> {
+            // 设置调试环境
+            for (DebugEnvParam debugEnv : param.getDebugEnvs()) {
+                if (StringUtils.isEmpty(debugEnv.getName()) || StringUtils.isEmpty(debugEnv.getUrl())) {
+                    continue;
                 }
-                for (DocPushItemParam detailPushParam : param.getApis()) {
-                    docPushItemParamThreadLocal.set(detailPushParam);
-                    this.pushDocItem(detailPushParam, context, 0L, pushContext, param);
+                moduleEnvironmentService.setDebugEnv(moduleId, debugEnv.getName(), debugEnv.getUrl());
+            }
+            // 替换文档
+            boolean replace = !isOverride(moduleId)
+                    && Booleans.isTrue(param.getIsReplace(), true)
+                    && !BooleanUtils.toBoolean(param.getIsOverride());
+            if (replace && !pushContext.isIncremental()) {
+                // 先删除之前的文档
+                this.deleteOpenAPIModuleDocs(moduleId);
+            }
+            List<DocPushItemParam> apis = param.getApis();
+            for (int i = 0; i < apis.size(); i++) {
+                DocPushItemParam detailPushParam = apis.get(i);
+                currentItem.set(detailPushParam);
+                this.pushDocItem(detailPushParam, context, 0L, pushContext, param);
+                // 一个目录保存完后释放引用，推送内容较大时降低内存占用
+                apis.set(i, null);
+            }
+            if (replace && pushContext.isIncremental()) {
+                // 增量推送，删除本次没有推送的文档
+                this.deleteNotPushedDocs(pushContext);
+            }
+            // 设置公共错误码
+            this.setCommonErrorCodes(moduleId, param.getCommonErrorCodes());
+            return true;
+        }, e -> {
+            DocPushItemParam docPushItemParam = currentItem.get();
+            String paramInfo = JSON.toJSONString(docPushItemParam);
+            log.error("【PUSH】保存文档失败，模块名称：{}，推送人：{}，ip：{}，token：{}, 文档信息：{}", module.getName(), param.getAuthor(), ip, token, paramInfo, e);
+            // 保存第一个文档前失败（如设置调试环境、删除旧文档）时没有当前文档
+            String name = docPushItemParam != null ? docPushItemParam.getName() : module.getName();
+            String msg = String.format(PUSH_ERROR_MSG, name);
+            this.sendMessage(msg);
+            pushJob.fail(msg);
+        });
+        if (Boolean.TRUE.equals(success)) {
+            pushJob.success(pushContext);
+            if (onSuccess != null) {
+                try {
+                    onSuccess.run();
+                } catch (Exception e) {
+                    log.error("【PUSH】推送成功回调执行失败，模块名称：{}", module.getName(), e);
                 }
-                // 设置公共错误码
-                this.setCommonErrorCodes(moduleId, param.getCommonErrorCodes());
-                return null;
-            }, e -> {
-                DocPushItemParam docPushItemParam = docPushItemParamThreadLocal.get();
-                String paramInfo = JSON.toJSONString(docPushItemParam);
-                log.error("【PUSH】保存文档失败，模块名称：{}，推送人：{}，ip：{}，token：{}, 文档信息：{}", module.getName(), param.getAuthor(), ip, token, paramInfo, e);
-                this.sendMessage(String.format(PUSH_ERROR_MSG, docPushItemParam.getName()));
-            });
-            log.info("【PUSH】推送处理完成，模块名称：{}，推送人：{}，ip：{}，token：{}，耗时：{}秒",
-                    module.getName(), param.getAuthor(), ip, token, (System.currentTimeMillis() - startTime)/1000.0);
+            }
+        }
+        log.info("【PUSH】推送处理完成，模块名称：{}，推送人：{}，ip：{}，token：{}，跳过未变化文档：{}，耗时：{}秒",
+                module.getName(), param.getAuthor(), ip, token, pushContext.getSkipCount(), (System.currentTimeMillis() - startTime)/1000.0);
+    }
+
+    private boolean isIncremental(long moduleId, DocPushParam param) {
+        if (BooleanUtils.toBoolean(param.getIsIncremental())) {
+            return true;
         }
+        String value = moduleConfigService.getCommonConfigValue(moduleId, EnvironmentKeys.TORNA_PUSH_INCREMENTAL.getKey(),
+                EnvironmentKeys.TORNA_PUSH_INCREMENTAL.getValue());
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * 删除之前推送过，本次没有推送的文档
+     *
+     * @param pushContext 推送上下文
+     */
+    private void deleteNotPushedDocs(PushContext pushContext) {
+        Set<String> pushedDataIds = pushContext.getPushedDataIds();
+        List<Long> docIdList = pushContext.getDocMetaIndex()
+                .getDocMetas()
+                .stream()
+                .filter(docMeta -> Objects.equals(docMeta.getCreateMode(), OperationMode.OPEN.getType()))
+                .filter(docMeta -> !Booleans.isTrue(docMeta.getIsLocked()))
+                .filter(docMeta -> !pushedDataIds.contains(docMeta.getDataId()))
+                .map(DocMeta::getId)
+                .collect(Collectors.toList());
+        docInfoService.deleteOpenAPIDocs(docIdList);
     }
 
     private boolean isOverride(long moduleId) {
@@ -237,7 +381,7 @@ public class DocApi {
     public void pushDocItem(DocPushItemParam param, RequestContext context, Long parentId, PushContext pushContext, DocPushParam docPushParam) {
         User user = context.getApiUser();
         long moduleId = context.getModuleId();
-        List<DocMeta> docMetas = pushContext.getDocMetas();
+        DocMetaIndex docMetaIndex = pushContext.getDocMetaIndex();
         if (Booleans.isTrue(param.getIsFolder())) {
             DocInfo folder;
             Map<String, Object> props = null;
@@ -254,8 +398,10 @@ public class DocApi {
             docFolderCreateDTO.setProps(props);
             docFolderCreateDTO.setAuthor(param.getAuthor());
             docFolderCreateDTO.setOrderIndex(param.getOrderIndex());
+            String folderDataId = docFolderCreateDTO.buildDataId();
+            pushContext.addPushedDataId(folderDataId);
             // 被锁住
-            if (DocInfoService.isLocked(docFolderCreateDTO.buildDataId(), docMetas)) {
+            if (docMetaIndex.isLocked(folderDataId)) {
                 return;
             }
             folder = docInfoService.createDocFolder(docFolderCreateDTO);
@@ -276,11 +422,33 @@ public class DocApi {
             docInfoDTO.setModuleId(moduleId);
             docInfoDTO.setParentId(parentId);
             formatUrl(docInfoDTO);
+            String dataId = docInfoDTO.buildDataId();
+            pushContext.addPushedDataId(dataId);
             // 被锁住
-            if (DocInfoService.isLocked(docInfoDTO.buildDataId(), docMetas)) {
+            if (docMetaIndex.isLocked(dataId)) {
                 return;
             }
-            docInfoService.doPushSaveDocInfo(docInfoDTO, user, BooleanUtils.toBoolean(docPushParam.getIsOverride()));
+            boolean isOverride = BooleanUtils.toBoolean(docPushParam.getIsOverride());
+            // 与保存时的md5计算保持一致
+            docInfoDTO.setMd5(DocInfoService.getDocMd5(docInfoDTO));
+            // 包含所有推送字段，增量推送时判断是否有变化
+            String pushMd5 = DocInfoService.getPushMd5(docInfoDTO);
+            docInfoDTO.setPushMd5(pushMd5);
+            if (pushContext.isIncremental()) {
+                // 内容没有变化，不需要保存
+                if (docMetaIndex.isPushContentSame(dataId, pushMd5)) {
+                    pushContext.incrementSkipCount();
+                    return;
+                }
+                // 文档没有被删除，需要先删除之前推送的参数
+                isOverride = true;
+            }
+            docInfoService.doPushSaveDocInfo(docInfoDTO, user, isOverride);
+            if (docMetaIndex.get(dataId) == null) {
+                pushContext.incrementInsertCount();
+            } else {
+                pushContext.incrementUpdateCount();
+            }
         }
     }
 
@@ -294,12 +462,7 @@ public class DocApi {
     }
 
     private static DocInfoDTO buildDocInfoDTO(DocPushItemParam param) {
-        DocInfoDTO docInfoDTO = CopyUtil.deepCopy(param, DocInfoDTO.class);
-        List<CodeParamPushParam> errorCodeParams = param.getErrorCodeParams();
-        if (!CollectionUtils.isEmpty(errorCodeParams)) {
-            List<DocParamDTO> errorParams = CopyUtil.copyList(errorCodeParams, DocParamDTO::new);
-            docInfoDTO.setErrorCodeParams(errorParams);
-        }
+        DocInfoDTO docInfoDTO = DocPushItemConverter.toDocInfoDTO(param);
         if (StringUtils.hasText(param.getDefinition())) {
             docInfoDTO.setUrl(param.getDefinition());
         }
@@ -16,11 +16,13 @@ import cn.torna.common.enums.DocTypeEnum;
 import cn.torna.common.exception.BizException;
 import cn.torna.common.util.MockUtil;
 import cn.torna.dao.entity.Module;
+import cn.torna.dao.entity.ModuleSwaggerConfig;
 import cn.torna.manager.doc.DataType;
 import cn.torna.service.ModuleService;
 import cn.torna.service.ModuleSwaggerConfigService;
 import cn.torna.service.dto.ImportSwaggerV2DTO;
 import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
@@ -38,15 +40,20 @@ import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -55,6 +62,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -68,7 +78,12 @@ import java.util.stream.Stream;
 @Slf4j
 public class SwaggerApi {
 
-    private static final ThreadLocal<AtomicInteger> threadLocal = new ThreadLocal<>();
+    /** 并行生成接口文档，每个接口的转换互不影响 */
+    private static final ForkJoinPool CONVERT_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("torna-swagger-convert-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
     private static final String STATUS_200 = "200";
     private static final String TYPE_ENUM = "enum";
     private static final String TYPE_OBJECT = "object";
@@ -93,7 +108,43 @@ public class SwaggerApi {
     }
 
     public Module importSwagger(ImportSwaggerV2DTO importSwaggerV2DTO, Module module) {
-        String content = buildSwaggerDocContent(importSwaggerV2DTO);
+        SwaggerContent swaggerContent = buildSwaggerDocContent(importSwaggerV2DTO, null);
+        return importSwagger(importSwaggerV2DTO, module, swaggerContent);
+    }
+
+    /**
+     * 刷新swagger文档。
+     * <p>
+     * 不是强制刷新时，通过url导入的带上If-None-Match、If-Modified-Since，返回304时不再解析；
+     * 文档内容和上次导入成功的一样时不推送。
+     *
+     * @param importSwaggerV2DTO  导入参数
+     * @param module              模块
+     * @param moduleSwaggerConfig 模块swagger配置
+     * @param force               true：强制重新导入，页面上手动同步时使用
+     * @return 文档有变化并推送返回true
+     */
+    public boolean refreshSwagger(ImportSwaggerV2DTO importSwaggerV2DTO, Module module, ModuleSwaggerConfig moduleSwaggerConfig, boolean force) {
+        if (force) {
+            importSwagger(importSwaggerV2DTO, module, buildSwaggerDocContent(importSwaggerV2DTO, null));
+            return true;
+        }
+        SwaggerContent swaggerContent = buildSwaggerDocContent(importSwaggerV2DTO, moduleSwaggerConfig);
+        if (swaggerContent.isNotModified()) {
+            moduleSwaggerConfigService.updateRefreshInfo(moduleSwaggerConfig.getId(), null, null);
+            return false;
+        }
+        String contentHash = ModuleSwaggerConfigService.getContentHash(swaggerContent.getContent());
+        if (Objects.equals(contentHash, moduleSwaggerConfig.getContentHash())) {
+            moduleSwaggerConfigService.updateRefreshInfo(moduleSwaggerConfig.getId(), swaggerContent.getEtag(), swaggerContent.getLastModified());
+            return false;
+        }
+        importSwagger(importSwaggerV2DTO, module, swaggerContent);
+        return true;
+    }
+
+    private Module importSwagger(ImportSwaggerV2DTO importSwaggerV2DTO, Module module, SwaggerContent swaggerContent) {
+        String content = swaggerContent.getContent();
         User user = importSwaggerV2DTO.getUser();
         String nickname = user.getNickname();
         ApiUser apiUser = new ApiUser();
@@ -108,21 +159,20 @@ public class SwaggerApi {
         RequestContext.getCurrentContext().setIp(importSwaggerV2DTO.getIp());
         RequestContext.getCurrentContext().setApiUser(apiUser);
         // 保存配置
-        moduleSwaggerConfigService.create(importSwaggerV2DTO, content, module);
-        // 推送文档
-        docApi.pushDoc(docPushParam);
+        ModuleSwaggerConfig moduleSwaggerConfig = moduleSwaggerConfigService.create(importSwaggerV2DTO, content, module);
+        String contentHash = ModuleSwaggerConfigService.getContentHash(content);
+        // 推送文档，推送成功后才记录md5值、ETag，推送被拒绝或失败时下次刷新会重新导入
+        docApi.pushDoc(docPushParam, () -> moduleSwaggerConfigService.updateImportInfo(moduleSwaggerConfig.getId(),
+                contentHash, swaggerContent.getEtag(), swaggerContent.getLastModified()));
         return module;
     }
 
     public static DocPushParam buildDocPushParam(String pushUser, OpenAPI openAPI) {
         try {
-            threadLocal.set(new AtomicInteger());
             return convertDocInfo(pushUser, openAPI);
         } catch (Exception e) {
             log.error("解析Swagger文档失败", e);
             throw new BizException("解析Swagger文档失败");
-        } finally {
-            threadLocal.remove();
         }
     }
 
@@ -155,18 +205,37 @@ public class SwaggerApi {
         return info.getTitle();
     }
 
-    private static String buildSwaggerDocContent(ImportSwaggerV2DTO importSwaggerV2DTO) {
+    /**
+     * 获取swagger文档内容
+     *
+     * @param importSwaggerV2DTO  导入参数
+     * @param moduleSwaggerConfig 上次保存的配置，不为null时发送条件请求
+     * @return 返回文档内容
+     */
+    private static SwaggerContent buildSwaggerDocContent(ImportSwaggerV2DTO importSwaggerV2DTO, ModuleSwaggerConfig moduleSwaggerConfig) {
         String url = importSwaggerV2DTO.getUrl();
         if (StringUtils.hasText(url)) {
             try {
-                HttpHelper.ResponseResult responseResult = HttpHelper
+                HttpHelper httpHelper = HttpHelper
                         .create()
                         .basicAuth(importSwaggerV2DTO.getAuthUsername(), importSwaggerV2DTO.getAuthPassword())
                         .url(url)
-                        .method("get")
-                        .execute();
-                String body = responseResult.asString();
+                        .method("get");
+                if (moduleSwaggerConfig != null) {
+                    if (StringUtils.hasText(moduleSwaggerConfig.getEtag())) {
+                        httpHelper.header(HttpHeaders.IF_NONE_MATCH, moduleSwaggerConfig.getEtag());
+                    }
+                    if (StringUtils.hasText(moduleSwaggerConfig.getLastModified())) {
+                        httpHelper.header(HttpHeaders.IF_MODIFIED_SINCE, moduleSwaggerConfig.getLastModified());
+                    }
+                }
+                HttpHelper.ResponseResult responseResult = httpHelper.execute();
                 int status = responseResult.getStatus();
+                if (status == HttpStatus.NOT_MODIFIED.value()) {
+                    responseResult.closeResponse();
+                    return new SwaggerContent(null, null, null, true);
+                }
+                String body = responseResult.asString();
                 if (status == HttpStatus.UNAUTHORIZED.value()) {
                     throw new BizException("认证失败");
                 }
@@ -174,7 +243,8 @@ public class SwaggerApi {
                     log.error("导入swagger错误，url:{}, \n{}", url, body);
                     throw new BizException("导入错误，请查看日志");
                 }
-                return body;
+                HttpResponse response = responseResult.getResponse();
+                return new SwaggerContent(body, getHeader(response, HttpHeaders.ETAG), getHeader(response, HttpHeaders.LAST_MODIFIED), false);
             } catch (IOException e) {
                 log.error("导入swagger异常, url:{}", url, e);
                 throw new BizException("导入异常, msg:" + e.getMessage());
@@ -184,10 +254,15 @@ public class SwaggerApi {
             if (StringUtils.isEmpty(content)) {
                 throw new BizException("swagger文档内容不能为空");
             }
-            return content;
+            return new SwaggerContent(content, null, null, false);
         }
     }
 
+    private static String getHeader(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
     private Module createModule(ImportSwaggerV2DTO importSwaggerV2DTO, String title) {
         // 创建模块
         return moduleService.createSwaggerModule(importSwaggerV2DTO, title);
@@ -202,7 +277,7 @@ public class SwaggerApi {
     private static DocPushParam convertDocInfo(String pushUser, OpenAPI openAPI) {
         DocPushParam docPushParam = new DocPushParam();
         List<DebugEnvParam> debugEnvParams = buildDebugEnvParams(openAPI);
-        List<DocPushItemParam> apis = buildDocPushItemParams(openAPI);
+        List<DocPushItemParam> apis = buildDocPushItemParams(openAPI, new RefCache(openAPI));
         docPushParam.setAuthor(pushUser);
         docPushParam.setDebugEnvs(debugEnvParams);
         docPushParam.setApis(apis);
@@ -234,9 +309,9 @@ public class SwaggerApi {
                 .collect(Collectors.toList());
     }
 
-    private static List<DocPushItemParam> buildDocPushItemParams(OpenAPI openAPI) {
+    private static List<DocPushItemParam> buildDocPushItemParams(OpenAPI openAPI, RefCache refCache) {
         // 生成文档
-        List<DocPushItemParam> items = buildItems(openAPI);
+        List<DocPushItemParam> items = buildItems(openAPI, refCache);
         // 生成目录
         List<DocPushItemParam> folders = buildFolders(items);
         // 如果没有目录，直接返回文档
@@ -269,6 +344,8 @@ public class SwaggerApi {
         if (CollectionUtils.isEmpty(tags)) {
             return new ArrayList<>();
         }
+        // 目录排在文档后面
+        AtomicInteger orderIndex = new AtomicInteger(items.size());
         return tags.stream()
                 .map(tag -> {
                     return DocPushItemParam.builder()
@@ -276,59 +353,60 @@ public class SwaggerApi {
                             .description(tag)
                             .isFolder(Booleans.TRUE)
                             .items(new ArrayList<>())
-                            .orderIndex(threadLocal.get().getAndIncrement())
+                            .orderIndex(orderIndex.getAndIncrement())
                             .build();
                 })
                 .collect(Collectors.toList());
     }
 
-    private static List<DocPushItemParam> buildItems(OpenAPI openAPI) {
+    private static List<DocPushItemParam> buildItems(OpenAPI openAPI, RefCache refCache) {
         Paths paths = openAPI.getPaths();
         if (CollectionUtils.isEmpty(paths)) {
             return Collections.emptyList();
         }
-        return paths.entrySet()
-                .stream()
-                .flatMap(entry-> buildItems(entry, openAPI).stream())
-                .collect(Collectors.toList());
-    }
+        // 先按路径、请求方法的顺序确定排序，再并行生成文档，结果顺序不变
+        List<OperationEntry> operations = new ArrayList<>();
+        for (Map.Entry<String, PathItem> entry : paths.entrySet()) {
+            Map<PathItem.HttpMethod, Operation> operationMap = entry.getValue().readOperationsMap();
+            for (Map.Entry<PathItem.HttpMethod, Operation> operationEntry : operationMap.entrySet()) {
+                operations.add(new OperationEntry(entry.getKey(), operationEntry.getKey().name(), operationEntry.getValue(), operations.size()));
+            }
+        }
+        return CONVERT_POOL.submit(() -> operations.parallelStream()
+                        .map(operationEntry -> buildItem(operationEntry, openAPI, refCache))
+                        .collect(Collectors.toList()))
+                .join();
+    }
+
+    private static DocPushItemParam buildItem(OperationEntry operationEntry, OpenAPI openAPI, RefCache refCache) {
+        String path = operationEntry.getPath();
+        String httpMethod = operationEntry.getHttpMethod();
+        Operation operation = operationEntry.getOperation();
+        DocPushItemParam docPushItemParam = DocPushItemParam.builder()
+                .name(operation.getSummary())
+                .description(operation.getDescription())
+                .httpMethod(httpMethod)
+                .type(DocTypeEnum.HTTP.getType())
+                .url(path)
+                .isFolder(Booleans.FALSE)
+                .deprecated(Optional.ofNullable(operation.getDeprecated()).orElse(false) ? "" : null)
+                .orderIndex(operationEntry.getOrderIndex())
+                .headerParams(buildHeaderParamPushParams(operation))
+                .pathParams(buildDocParamPushParams(openAPI, operation, parameter -> Objects.equals("path", parameter.getIn()), refCache))
+                .queryParams(buildDocParamPushParams(openAPI, operation, parameter -> Objects.equals("query", parameter.getIn()), refCache))
+                .tag(CollectionUtils.isEmpty(operation.getTags()) ? "" : operation.getTags().get(0))
+                .build();
 
-    private static List<DocPushItemParam> buildItems(Map.Entry<String, PathItem> entry, OpenAPI openAPI) {
-         List<DocPushItemParam> items = new ArrayList<>();
-        String path = entry.getKey();
-        PathItem pathItem = entry.getValue();
-        Map<PathItem.HttpMethod, Operation> operationMap = pathItem.readOperationsMap();
-        for (Map.Entry<PathItem.HttpMethod, Operation> operationEntry : operationMap.entrySet()) {
-            String httpMethod = operationEntry.getKey().name();
-            Operation operation = operationEntry.getValue();
-            DocPushItemParam docPushItemParam = DocPushItemParam.builder()
-                    .name(operation.getSummary())
-                    .description(operation.getDescription())
-                    .httpMethod(httpMethod)
-                    .type(DocTypeEnum.HTTP.getType())
-                    .url(path)
-                    .isFolder(Booleans.FALSE)
-                    .deprecated(Optional.ofNullable(operation.getDeprecated()).orElse(false) ? "" : null)
-                    .orderIndex(threadLocal.get().getAndIncrement())
-                    .headerParams(buildHeaderParamPushParams(operation))
-                    .pathParams(buildDocParamPushParams(openAPI, operation, parameter -> Objects.equals("path", parameter.getIn())))
-                    .queryParams(buildDocParamPushParams(openAPI, operation, parameter -> Objects.equals("query", parameter.getIn())))
-                    .tag(CollectionUtils.isEmpty(operation.getTags()) ? "" : operation.getTags().get(0))
-                    .build();
-
-            RequestParamsWrapper requestParamsWrapper = buildRequestParamsWrapper(operation, openAPI);
-            docPushItemParam.setRequestParams(requestParamsWrapper.getDocParamPushParams());
-            docPushItemParam.setIsRequestArray(Booleans.toValue(requestParamsWrapper.isRequestArray()));
-            docPushItemParam.setRequestArrayType(requestParamsWrapper.getRequestArrayType());
-            docPushItemParam.setContentType(requestParamsWrapper.getContentType());
-
-            ResponseParamsWrapper responseParamsWrapper = buildResponseParamsWrapper(operation, openAPI);
-            docPushItemParam.setResponseParams(responseParamsWrapper.getDocParamPushParams());
-            docPushItemParam.setIsResponseArray(Booleans.toValue(responseParamsWrapper.isResponseArray()));
-
-            items.add(docPushItemParam);
-        }
-        return items;
+        RequestParamsWrapper requestParamsWrapper = buildRequestParamsWrapper(operation, openAPI, refCache);
+        docPushItemParam.setRequestParams(requestParamsWrapper.getDocParamPushParams());
+        docPushItemParam.setIsRequestArray(Booleans.toValue(requestParamsWrapper.isRequestArray()));
+        docPushItemParam.setRequestArrayType(requestParamsWrapper.getRequestArrayType());
+        docPushItemParam.setContentType(requestParamsWrapper.getContentType());
+
+        ResponseParamsWrapper responseParamsWrapper = buildResponseParamsWrapper(operation, openAPI, refCache);
+        docPushItemParam.setResponseParams(responseParamsWrapper.getDocParamPushParams());
+        docPushItemParam.setIsResponseArray(Booleans.toValue(responseParamsWrapper.isResponseArray()));
+        return docPushItemParam;
     }
 
     private static List<HeaderParamPushParam> buildHeaderParamPushParams(Operation operation) {
@@ -349,7 +427,7 @@ public class SwaggerApi {
                 .collect(Collectors.toList());
     }
 
-    private static RequestParamsWrapper buildRequestParamsWrapper(Operation operation, OpenAPI openAPI) {
+    private static RequestParamsWrapper buildRequestParamsWrapper(Operation operation, OpenAPI openAPI, RefCache refCache) {
         RequestBody requestBody = operation.getRequestBody();
         boolean isRequestArray = false;
         String requestArrayType = DataType.OBJECT;
@@ -372,7 +450,7 @@ public class SwaggerApi {
                         Schema<?> items = schema.getItems();
                         $ref = items.get$ref();
                         if ($ref != null) {
-                            docParamPushParams = buildObjectParam($ref, openAPI, new BuildObjectParamContext());
+                            docParamPushParams = buildObjectParam($ref, openAPI, new BuildObjectParamContext(refCache));
                         } else {
                             String itemType = items.getType();
                             if (StringUtils.hasText(itemType)) {
@@ -385,7 +463,7 @@ public class SwaggerApi {
                             }
                         }
                     } else if ($ref != null) {
-                        docParamPushParams = buildObjectParam($ref, openAPI, new BuildObjectParamContext());
+                        docParamPushParams = buildObjectParam($ref, openAPI, new BuildObjectParamContext(refCache));
                     }
                 } else if (key.contains("form")) {
                     contentType = key.contains("multipart") ? "multipart/form-data" : "application/x-www-form-urlencoded";
@@ -397,7 +475,7 @@ public class SwaggerApi {
             }
         } else {
             // 表单结构
-            docParamPushParams = buildDocParamPushParams(openAPI, operation, parameter -> "formData".equals(parameter.getIn()));
+            docParamPushParams = buildDocParamPushParams(openAPI, operation, parameter -> "formData".equals(parameter.getIn()), refCache);
         }
         return new RequestParamsWrapper(docParamPushParams, isRequestArray, requestArrayType, contentType);
     }
@@ -416,7 +494,7 @@ public class SwaggerApi {
         return Collections.singletonList(param);
     }
 
-    private static ResponseParamsWrapper buildResponseParamsWrapper(Operation operation, OpenAPI openAPI) {
+    private static ResponseParamsWrapper buildResponseParamsWrapper(Operation operation, OpenAPI openAPI, RefCache refCache) {
         List<DocParamPushParam> docParamPushParams = Collections.emptyList();
         boolean isResponseArray = false;
         ApiResponses responses = operation.getResponses();
@@ -436,9 +514,9 @@ public class SwaggerApi {
                             isResponseArray = true;
                             Schema<?> items = schema.getItems();
                             $ref = items.get$ref();
-                            docParamPushParams = buildObjectParam($ref, openAPI, new BuildObjectParamContext());
+                            docParamPushParams = buildObjectParam($ref, openAPI, new BuildObjectParamContext(refCache));
                         } else if ($ref != null && !$ref.endsWith("@")/*排除@*/) {
-                            docParamPushParams = buildObjectParam($ref, openAPI, new BuildObjectParamContext());
+                            docParamPushParams = buildObjectParam($ref, openAPI, new BuildObjectParamContext(refCache));
                         }
                     }
                 }
@@ -448,24 +526,157 @@ public class SwaggerApi {
     }
 
     private static class BuildObjectParamContext {
-        private Set<String> $refSets;
+        // 按加入顺序保存，用来找出一次展开中新加入的$ref
+        private final Set<String> $refSets;
+        private final RefCache refCache;
 
-        public BuildObjectParamContext() {
-            $refSets = new HashSet<>();
+        public BuildObjectParamContext(RefCache refCache) {
+            this.$refSets = new LinkedHashSet<>();
+            this.refCache = refCache;
         }
 
         public boolean add$ref(String $ref) {
             return $refSets.add($ref);
         }
+
+        public boolean contains$ref(String $ref) {
+            return $refSets.contains($ref);
+        }
+
+        /**
+         * 返回第start个之后加入的$ref
+         */
+        public Set<String> get$refs(int start) {
+            return $refSets.stream()
+                    .skip(start)
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * 一次导入中共用的$ref展开缓存。
+     * <p>
+     * 同一个$ref会在很多接口中出现，如Result«Page«OrderDTO»»，展开一次后作为模板保存，再次使用时复制一份返回。
+     * 展开结果还和当前已经出现过的$ref有关（出现过的不再展开），所以key由$ref和展开时会遇到、且已经出现过的$ref组成。
+     * 多个接口并行生成时共用，展开过程中会递归，不能用computeIfAbsent，同时展开同一个$ref结果是一样的。
+     */
+    private static class RefCache {
+        private final OpenAPI openAPI;
+        // key: $ref，value: 展开时可能遇到的$ref
+        private final Map<String, Set<String>> reachableRefs = new ConcurrentHashMap<>();
+        private final Map<String, RefTemplate> templates = new ConcurrentHashMap<>();
+
+        public RefCache(OpenAPI openAPI) {
+            this.openAPI = openAPI;
+        }
+
+        public String buildKey(String $ref, Set<String> $refSets) {
+            if ($refSets.isEmpty()) {
+                return $ref;
+            }
+            Set<String> reachable = getReachableRefs($ref);
+            StringBuilder key = new StringBuilder($ref);
+            $refSets.stream()
+                    .filter(reachable::contains)
+                    .sorted()
+                    .forEach(ref -> key.append('|').append(ref));
+            return key.toString();
+        }
+
+        private Set<String> getReachableRefs(String $ref) {
+            Set<String> refs = reachableRefs.get($ref);
+            if (refs != null) {
+                return refs;
+            }
+            refs = new HashSet<>();
+            Deque<String> stack = new ArrayDeque<>();
+            stack.push($ref);
+            while (!stack.isEmpty()) {
+                String ref = stack.pop();
+                if (refs.add(ref)) {
+                    Schema<?> schema = Optional.ofNullable(openAPI.getComponents())
+                            .map(Components::getSchemas)
+                            .map(schemas -> schemas.get(getRefName(ref)))
+                            .orElse(null);
+                    collectRefs(schema, stack);
+                }
+            }
+            reachableRefs.put($ref, refs);
+            return refs;
+        }
+
+        private static void collectRefs(Schema<?> schema, Deque<String> refs) {
+            if (schema == null) {
+                return;
+            }
+            if (schema.get$ref() != null) {
+                refs.push(schema.get$ref());
+            }
+            Map<String, Schema> properties = schema.getProperties();
+            if (properties != null) {
+                for (Schema<?> value : properties.values()) {
+                    collectRefs(value, refs);
+                }
+            }
+            collectRefs(schema.getItems(), refs);
+        }
+    }
+
+    private static class RefTemplate {
+        // 展开后的参数，不直接返回
+        private final List<DocParamPushParam> params;
+        // 展开过程中加入的$ref
+        private final Set<String> $refs;
+
+        public RefTemplate(List<DocParamPushParam> params, Set<String> $refs) {
+            this.params = params;
+            this.$refs = $refs;
+        }
     }
 
     private static List<DocParamPushParam> buildObjectParam(String $ref, OpenAPI openAPI, BuildObjectParamContext context) {
         // 防止树形对象死循环
-        if (!context.add$ref($ref)) {
+        if (context.contains$ref($ref)) {
             return null;
         }
+        RefCache refCache = context.refCache;
+        String key = refCache.buildKey($ref, context.$refSets);
+        RefTemplate template = refCache.templates.get(key);
+        if (template != null) {
+            context.$refSets.addAll(template.$refs);
+            return copyParams(template.params);
+        }
+        int start = context.$refSets.size();
+        context.add$ref($ref);
         JsonSchema jsonSchema = getJsonSchema($ref, openAPI);
-        return buildObjectParam(jsonSchema, openAPI, context);
+        List<DocParamPushParam> params = buildObjectParam(jsonSchema, openAPI, context);
+        refCache.templates.put(key, new RefTemplate(copyParams(params), context.get$refs(start)));
+        return params;
+    }
+
+    private static List<DocParamPushParam> copyParams(List<DocParamPushParam> params) {
+        if (params == null) {
+            return null;
+        }
+        List<DocParamPushParam> list = new ArrayList<>(params.size());
+        for (DocParamPushParam param : params) {
+            list.add(DocParamPushParam.builder()
+                    .name(param.getName())
+                    .type(param.getType())
+                    .required(param.getRequired())
+                    .maxLength(param.getMaxLength())
+                    .example(param.getExample())
+                    .description(param.getDescription())
+                    .parentId(param.getParentId())
+                    .enumInfo(param.getEnumInfo())
+                    .children(copyParams(param.getChildren()))
+                    .createMode(param.getCreateMode())
+                    .modifyMode(param.getModifyMode())
+                    .isDeleted(param.getIsDeleted())
+                    .orderIndex(param.getOrderIndex())
+                    .build());
+        }
+        return list;
     }
 
     private static List<DocParamPushParam> buildObjectParam(JsonSchema jsonSchema, OpenAPI openAPI, BuildObjectParamContext context) {
@@ -558,7 +769,7 @@ public class SwaggerApi {
         return enumInfoCreateParam;
     }
 
-    private static List<DocParamPushParam> buildDocParamPushParams(OpenAPI openAPI, Operation operation, Predicate<Parameter> predicate) {
+    private static List<DocParamPushParam> buildDocParamPushParams(OpenAPI openAPI, Operation operation, Predicate<Parameter> predicate, RefCache refCache) {
         List<Parameter> parameters = operation.getParameters();
         if (CollectionUtils.isEmpty(parameters)) {
             return null;
@@ -586,7 +797,7 @@ public class SwaggerApi {
                             List<?> list = items.getEnum();
                             setEnumDescription(list, param);
                         } else if ($ref != null) {
-                            return buildObjectParam($ref, openAPI, new BuildObjectParamContext()).stream();
+                            return buildObjectParam($ref, openAPI, new BuildObjectParamContext(refCache)).stream();
                         }
                     }
                     return Stream.of(param);
@@ -757,6 +968,25 @@ public class SwaggerApi {
     }
 
 
+    @AllArgsConstructor
+    @Data
+    static class SwaggerContent {
+        private String content;
+        private String etag;
+        private String lastModified;
+        /** 返回304，文档没有变化 */
+        private boolean notModified;
+    }
+
+    @AllArgsConstructor
+    @Data
+    static class OperationEntry {
+        private String path;
+        private String httpMethod;
+        private Operation operation;
+        private int orderIndex;
+    }
+
     @AllArgsConstructor
     @Data
     static class RequestParamsWrapper {
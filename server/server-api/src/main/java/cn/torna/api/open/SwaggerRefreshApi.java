@@ -9,6 +9,7 @@ import cn.torna.service.ModuleSwaggerConfigService;
 import cn.torna.service.dto.ImportSwaggerV2DTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 /**
  * @author thc
@@ -26,20 +27,29 @@ public class SwaggerRefreshApi {
     private ModuleSwaggerConfigService moduleSwaggerConfigService;
 
     /**
-     * 刷新
+     * 刷新，不是强制刷新时文档没有变化不重新导入
      *
-     * @param moduleId
+     * @param moduleId 模块id
+     * @param ip       操作人ip
+     * @param user     操作人
+     * @param force    true：强制重新导入，页面上手动同步时使用；false：定时刷新使用
+     * @return 重新导入返回true
      */
-    public void refresh(Long moduleId, String ip, User user) {
+    public boolean refresh(Long moduleId, String ip, User user, boolean force) {
         ModuleSwaggerConfig moduleSwaggerConfig = moduleSwaggerConfigService.getByModuleId(moduleId);
-        if (moduleSwaggerConfig != null) {
-            Module module = moduleService.getById(moduleId);
-            ImportSwaggerV2DTO importSwaggerV2DTO = CopyUtil.copyBean(moduleSwaggerConfig, ImportSwaggerV2DTO::new);
-            importSwaggerV2DTO.setUser(user);
-            importSwaggerV2DTO.setIp(ip);
-            importSwaggerV2DTO.setProjectId(module.getProjectId());
-            swaggerApi.importSwagger(importSwaggerV2DTO, module);
+        if (moduleSwaggerConfig == null) {
+            return false;
         }
+        Module module = moduleService.getById(moduleId);
+        ImportSwaggerV2DTO importSwaggerV2DTO = CopyUtil.copyBean(moduleSwaggerConfig, ImportSwaggerV2DTO::new);
+        importSwaggerV2DTO.setUser(user);
+        importSwaggerV2DTO.setIp(ip);
+        importSwaggerV2DTO.setProjectId(module.getProjectId());
+        // 通过url导入的不需要读取保存的内容
+        if (!StringUtils.hasText(moduleSwaggerConfig.getUrl())) {
+            importSwaggerV2DTO.setContent(moduleSwaggerConfigService.getContent(moduleSwaggerConfig));
+        }
+        return swaggerApi.refreshSwagger(importSwaggerV2DTO, module, moduleSwaggerConfig, force);
     }
 
 }
@@ -32,4 +32,7 @@ public class DocPushParam {
 
     @ApiDocField(description = "是否覆盖文档，1：覆盖，0：不覆盖。缺省：0。如果只想修改部分接口传1", example = "0")
     private Byte isOverride = 0;
+
+    @ApiDocField(description = "是否增量推送，1：内容没有变化的文档不再保存，0：全部保存。缺省：0", example = "0")
+    private Byte isIncremental;
 }
@@ -0,0 +1,18 @@
+package cn.torna.api.open.param;
+
+import com.gitee.easyopen.doc.annotation.ApiDocField;
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * @author tanghc
+ */
+@Data
+public class DocPushStatusParam {
+
+    @NotBlank(message = "jobId不能为空")
+    @ApiDocField(description = "推送任务id，doc.push返回", required = true, example = "1585734591826509824")
+    private String jobId;
+
+}
@@ -0,0 +1,15 @@
+package cn.torna.api.open.result;
+
+import com.gitee.easyopen.doc.annotation.ApiDocField;
+import lombok.Data;
+
+/**
+ * @author tanghc
+ */
+@Data
+public class DocPushResult {
+
+    @ApiDocField(description = "推送任务id，可通过doc.push.status查询推送结果，只能在接收推送的节点上查询", example = "1585734591826509824")
+    private String jobId;
+
+}
@@ -0,0 +1,33 @@
+package cn.torna.api.open.result;
+
+import com.gitee.easyopen.doc.annotation.ApiDocField;
+import lombok.Data;
+
+/**
+ * @author tanghc
+ */
+@Data
+public class DocPushStatusResult {
+
+    @ApiDocField(description = "推送任务id", example = "1585734591826509824")
+    private String jobId;
+
+    @ApiDocField(description = "推送状态，QUEUED：排队中，RUNNING：执行中，SUCCEEDED：成功，FAILED：失败", example = "SUCCEEDED")
+    private String status;
+
+    @ApiDocField(description = "失败原因", example = "")
+    private String message;
+
+    @ApiDocField(description = "执行耗时，毫秒", example = "1200")
+    private Long duration;
+
+    @ApiDocField(description = "新增文档数量", example = "10")
+    private Integer insertCount;
+
+    @ApiDocField(description = "修改文档数量", example = "5")
+    private Integer updateCount;
+
+    @ApiDocField(description = "内容没有变化跳过的文档数量", example = "100")
+    private Integer skipCount;
+
+}
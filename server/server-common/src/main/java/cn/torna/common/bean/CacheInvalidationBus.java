@@ -0,0 +1,31 @@
+package cn.torna.common.bean;
+
+import cn.torna.common.enums.CacheVersionTypeEnum;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 缓存失效消息总线，多台服务器部署时通知其它服务器清除缓存。
+ * <p>
+ * 没有该接口的实现时缓存只在本机失效。设置torna.cache-bus.type=db启用轮询数据库cache_version表的实现，
+ * 也可以实现该接口使用其它方式（如Redis、MQ）传递消息。
+ *
+ * @author tanghc
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * 发送缓存失效消息，通知其它服务器
+     *
+     * @param type 缓存类型
+     * @param id   数据id
+     */
+    void publish(CacheVersionTypeEnum type, long id);
+
+    /**
+     * 接收其它服务器发送的缓存失效消息，本机发送的消息不会收到
+     *
+     * @param receiver 参数1：缓存类型，参数2：数据id
+     */
+    void subscribe(BiConsumer<CacheVersionTypeEnum, Long> receiver);
+}
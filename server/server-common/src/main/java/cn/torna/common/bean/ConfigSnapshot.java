@@ -0,0 +1,75 @@
+package cn.torna.common.bean;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * 系统配置快照，创建后不再修改，配置有变化时重新创建一个替换。
+ * <p>
+ * {@link EnvironmentKeys}中的配置创建时就计算好，按ordinal()存放在数组中，读取时不用查找。
+ *
+ * @author tanghc
+ */
+public final class ConfigSnapshot {
+
+    private static final EnvironmentKeys[] KEYS = EnvironmentKeys.values();
+
+    /** 下标：EnvironmentKeys.ordinal()，值：数据库>Spring Environment>默认值 */
+    private final String[] values;
+
+    /** 数据库中的配置，key：configKey */
+    private final Map<String, String> configs;
+
+    /** 从Spring Environment获取配置 */
+    private final UnaryOperator<String> environment;
+
+    /**
+     * 创建快照
+     *
+     * @param configs     数据库中的配置，key：configKey，value：configValue
+     * @param environment 从Spring Environment获取配置，参数为key，没有返回null
+     */
+    public ConfigSnapshot(Map<String, String> configs, UnaryOperator<String> environment) {
+        this.configs = Collections.unmodifiableMap(new HashMap<>(configs));
+        this.environment = environment;
+        this.values = new String[KEYS.length];
+        for (EnvironmentKeys key : KEYS) {
+            String value = configs.get(key.getKey());
+            if (value == null) {
+                value = environment.apply(key.getKey());
+            }
+            if (value == null) {
+                value = key.getDefaultValue();
+            }
+            values[key.ordinal()] = value;
+        }
+    }
+
+    /**
+     * 获取配置
+     *
+     * @param key 配置key
+     * @return 返回配置，没有返回null
+     */
+    public String getValue(EnvironmentKeys key) {
+        return values[key.ordinal()];
+    }
+
+    /**
+     * 获取配置，优先级：数据库>Spring Environment>EnvironmentKeys默认值
+     *
+     * @param key 配置key
+     * @return 返回配置，没有返回null
+     */
+    public String getValue(String key) {
+        EnvironmentKeys environmentKeys = EnvironmentKeys.of(key);
+        if (environmentKeys != null) {
+            return getValue(environmentKeys);
+        }
+        String value = configs.get(key);
+        return value != null ? value : environment.apply(key);
+    }
+
+}
@@ -9,6 +9,17 @@ import cn.torna.common.interfaces.IConfig;
  */
 public class Configs {
 
+    /** 系统配置快照，系统配置加载完成后才有值 */
+    private static volatile ConfigSnapshot snapshot;
+
+    /**
+     * 替换系统配置快照
+     * @param snapshot 新的快照
+     */
+    public static void setSnapshot(ConfigSnapshot snapshot) {
+        Configs.snapshot = snapshot;
+    }
+
     /**
      * 获取配置参数
      * @param key 配置key
@@ -25,7 +36,27 @@ public class Configs {
      * @return 返回配参数，没有则返回默认值
      */
     public static String getValue(String key, String defaultValue) {
-        return SpringContext.getBean(IConfig.class).getConfig(key, defaultValue);
+        ConfigSnapshot configSnapshot = snapshot;
+        if (configSnapshot == null) {
+            return SpringContext.getBean(IConfig.class).getConfig(key, defaultValue);
+        }
+        String value = configSnapshot.getValue(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 获取配置参数，直接从快照中按下标读取
+     * @param key 配置key
+     * @param defaultValue 默认值
+     * @return 返回配参数，没有则返回默认值
+     */
+    public static String getValue(EnvironmentKeys key, String defaultValue) {
+        ConfigSnapshot configSnapshot = snapshot;
+        if (configSnapshot == null) {
+            return SpringContext.getBean(IConfig.class).getConfig(key.getKey(), defaultValue);
+        }
+        String value = configSnapshot.getValue(key);
+        return value != null ? value : defaultValue;
     }
 
 }
@@ -3,7 +3,8 @@ package cn.torna.common.bean;
 import cn.torna.common.context.UploadContext;
 import cn.torna.common.enums.DocSortType;
 
-import java.util.Objects;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 获取环境配置信息，读取顺序：缓存>数据库>Spring Environment
@@ -63,19 +64,24 @@ public enum EnvironmentKeys {
     TORNA_UPLOAD_DOMAIN("torna.upload.domain", null),
     TORNA_UPLOAD_DIR("torna.upload.dir", null),
     /** 推送是否覆盖 */
-    TORNA_PUSH_OVERRIDE("torna.push.override", String.valueOf(false))
+    TORNA_PUSH_OVERRIDE("torna.push.override", String.valueOf(false)),
+    /** 推送是否增量保存，内容没有变化的文档不再保存 */
+    TORNA_PUSH_INCREMENTAL("torna.push.incremental", String.valueOf(false))
     ;
 
+    private static final Map<String, EnvironmentKeys> KEY_MAP = new HashMap<>(64);
+
+    static {
+        for (EnvironmentKeys value : EnvironmentKeys.values()) {
+            KEY_MAP.put(value.key, value);
+        }
+    }
+
     private final String key;
     private String defaultValue;
 
     public static EnvironmentKeys of(String key) {
-        for (EnvironmentKeys value : EnvironmentKeys.values()) {
-            if (Objects.equals(value.key, key)) {
-                return value;
-            }
-        }
-        return null;
+        return key == null ? null : KEY_MAP.get(key);
     }
 
     EnvironmentKeys(String key) {
@@ -104,6 +110,6 @@ public enum EnvironmentKeys {
     }
 
     public String getValue(String defaultValue) {
-        return Configs.getValue(key, defaultValue);
+        return Configs.getValue(this, defaultValue);
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package cn.torna.common.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 缓存版本类型，数据有变化时对应的版本号+1
+ *
+ * @author tanghc
+ */
+@AllArgsConstructor
+@Getter
+public enum CacheVersionTypeEnum {
+    /** 模块下的文档，id为moduleId */
+    MODULE_DOC("module_doc"),
+    /** 模块信息、模块配置、枚举，id为moduleId */
+    MODULE_CONFIG("module_config"),
+    /** 调试环境及环境下的公共参数，id为environmentId */
+    ENVIRONMENT("environment"),
+    /** 分享配置，id为shareConfigId */
+    SHARE_CONFIG("share_config"),
+    /** 系统配置，id为systemConfigId */
+    SYSTEM_CONFIG("system_config"),
+    /** 用户，id为userId */
+    USER("user"),
+    /** 项目，id为projectId */
+    PROJECT("project"),
+
+    ;
+    private final String type;
+
+    public static CacheVersionTypeEnum of(String type) {
+        for (CacheVersionTypeEnum value : values()) {
+            if (value.type.equals(type)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
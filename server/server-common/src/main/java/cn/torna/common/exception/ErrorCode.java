@@ -10,6 +10,8 @@ public enum ErrorCode {
     JWT_ERROR("1000", "invalid token"),
     JWT_EXPIRED("1000", "token expired"),
     SET_PASSWORD("2000", "set password"),
+    // 3000: 推送繁忙，稍后重试
+    PUSH_BUSY("3000", "push queue is full, please retry later"),
     ;
 
     ErrorCode(String code, String msg) {
@@ -39,10 +39,17 @@ public class IdCodec implements ObjectSerializer, ObjectDeserializer {
             if (CollectionUtils.isEmpty(list)) {
                 out.writeNull(SerializerFeature.WriteNullListAsEmpty);
             } else {
-                List<String> hashIds = (List<String>) list.stream()
-                        .map(el -> IdUtil.encode(Long.parseLong(String.valueOf(el))))
-                        .collect(Collectors.toList());
-                out.write(hashIds);
+                // 直接写hashid，不用先转换成List<String>
+                out.write('[');
+                boolean first = true;
+                for (Object el : list) {
+                    if (!first) {
+                        out.write(',');
+                    }
+                    first = false;
+                    out.writeString(IdUtil.encode(toLong(el)));
+                }
+                out.write(']');
             }
         } else {
             Number value = (Number) object;
@@ -56,6 +63,13 @@ public class IdCodec implements ObjectSerializer, ObjectDeserializer {
     }
 
 
+    private static long toLong(Object el) {
+        if (el instanceof Number) {
+            return ((Number) el).longValue();
+        }
+        return Long.parseLong(String.valueOf(el));
+    }
+
     @Override
     public <T> T deserialze(DefaultJSONParser parser, Type type, Object fieldName) {
         final JSONLexer lexer = parser.lexer;
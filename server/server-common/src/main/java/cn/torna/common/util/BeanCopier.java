@@ -0,0 +1,230 @@
+package cn.torna.common.util;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 属性拷贝器，每一对(源类, 目标类)只解析一次属性，之后直接调用缓存的get/set方法。
+ * <p>
+ * get/set方法通过LambdaMetafactory生成，调用开销与直接调用方法接近；
+ * 类或方法不是public、或者不在当前类加载器中时，退回反射调用。
+ * <p>
+ * 拷贝规则与{@link BeanUtils#copyProperties(Object, Object)}一致。
+ *
+ * @author tanghc
+ */
+public final class BeanCopier {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * key：源类，value：(key：目标类，value：拷贝器)
+     */
+    private static final Map<Class<?>, Map<Class<?>, BeanCopier>> CACHE = new ConcurrentHashMap<>(64);
+
+    private final PropertyCopier[] propertyCopiers;
+
+    private BeanCopier(PropertyCopier[] propertyCopiers) {
+        this.propertyCopiers = propertyCopiers;
+    }
+
+    /**
+     * 获取拷贝器
+     *
+     * @param sourceClass 源类
+     * @param targetClass 目标类
+     * @return 返回拷贝器，同一对类只创建一次
+     */
+    public static BeanCopier get(Class<?> sourceClass, Class<?> targetClass) {
+        return CACHE.computeIfAbsent(sourceClass, k -> new ConcurrentHashMap<>(8))
+                .computeIfAbsent(targetClass, k -> create(sourceClass, targetClass));
+    }
+
+    /**
+     * 拷贝属性，效果同{@link BeanUtils#copyProperties(Object, Object)}
+     *
+     * @param from 源对象
+     * @param to   目标对象
+     */
+    public static void copy(Object from, Object to) {
+        get(from.getClass(), to.getClass()).copyProperties(from, to);
+    }
+
+    /**
+     * 拷贝属性，属性类型带泛型时需要泛型也匹配，null值也会拷贝
+     *
+     * @param from 源对象
+     * @param to   目标对象
+     */
+    public void copyProperties(Object from, Object to) {
+        for (PropertyCopier propertyCopier : propertyCopiers) {
+            if (propertyCopier.genericAssignable) {
+                propertyCopier.copy(from, to, false);
+            }
+        }
+    }
+
+    /**
+     * 拷贝属性，只比较原始类型，null值不拷贝
+     *
+     * @param from             源对象
+     * @param to               目标对象
+     * @param ignoreProperties 忽略的属性，可以为null
+     */
+    public void copyPropertiesIgnoreNull(Object from, Object to, List<String> ignoreProperties) {
+        for (PropertyCopier propertyCopier : propertyCopiers) {
+            if (ignoreProperties != null && ignoreProperties.contains(propertyCopier.name)) {
+                continue;
+            }
+            propertyCopier.copy(from, to, true);
+        }
+    }
+
+    private static BeanCopier create(Class<?> sourceClass, Class<?> targetClass) {
+        PropertyDescriptor[] targetPds = BeanUtils.getPropertyDescriptors(targetClass);
+        List<PropertyCopier> propertyCopiers = new ArrayList<>(targetPds.length);
+        for (PropertyDescriptor targetPd : targetPds) {
+            Method writeMethod = targetPd.getWriteMethod();
+            if (writeMethod == null) {
+                continue;
+            }
+            PropertyDescriptor sourcePd = BeanUtils.getPropertyDescriptor(sourceClass, targetPd.getName());
+            if (sourcePd == null || sourcePd.getReadMethod() == null) {
+                continue;
+            }
+            Method readMethod = sourcePd.getReadMethod();
+            if (!ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType())) {
+                continue;
+            }
+            ResolvableType sourceResolvableType = ResolvableType.forMethodReturnType(readMethod);
+            ResolvableType targetResolvableType = ResolvableType.forMethodParameter(writeMethod, 0);
+            // 与BeanUtils.copyProperties保持一致，泛型无法解析时只比较原始类型
+            boolean genericAssignable = sourceResolvableType.hasUnresolvableGenerics()
+                    || targetResolvableType.hasUnresolvableGenerics()
+                    || targetResolvableType.isAssignableFrom(sourceResolvableType);
+            propertyCopiers.add(new PropertyCopier(targetPd.getName(), buildGetter(readMethod), buildSetter(writeMethod), genericAssignable));
+        }
+        return new BeanCopier(propertyCopiers.toArray(new PropertyCopier[0]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> buildGetter(Method readMethod) {
+        if (canGenerate(readMethod)) {
+            try {
+                MethodHandle methodHandle = LOOKUP.unreflect(readMethod);
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        methodHandle,
+                        MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(readMethod.getReturnType()), readMethod.getDeclaringClass()));
+                return (Function<Object, Object>) callSite.getTarget().invoke();
+            } catch (Throwable e) {
+                // 生成失败使用反射
+            }
+        }
+        if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
+            readMethod.setAccessible(true);
+        }
+        return from -> {
+            try {
+                return readMethod.invoke(from);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> buildSetter(Method writeMethod) {
+        if (canGenerate(writeMethod)) {
+            try {
+                MethodHandle methodHandle = LOOKUP.unreflect(writeMethod);
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        methodHandle,
+                        MethodType.methodType(void.class, writeMethod.getDeclaringClass(),
+                                ClassUtils.resolvePrimitiveIfNecessary(writeMethod.getParameterTypes()[0])));
+                return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+            } catch (Throwable e) {
+                // 生成失败使用反射
+            }
+        }
+        if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
+            writeMethod.setAccessible(true);
+        }
+        return (to, value) -> {
+            try {
+                writeMethod.invoke(to, value);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * 生成的类定义在当前类加载器中，用到的类必须对当前类加载器可见
+     */
+    private static boolean canGenerate(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(declaringClass.getModifiers()) || !Modifier.isPublic(method.getModifiers())) {
+            return false;
+        }
+        ClassLoader classLoader = BeanCopier.class.getClassLoader();
+        if (!ClassUtils.isVisible(declaringClass, classLoader) || !ClassUtils.isVisible(method.getReturnType(), classLoader)) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!ClassUtils.isVisible(parameterType, classLoader)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class PropertyCopier {
+        private final String name;
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+        /** 泛型是否匹配，不匹配的属性只在copyPropertiesIgnoreNull中拷贝 */
+        private final boolean genericAssignable;
+
+        PropertyCopier(String name, Function<Object, Object> getter, BiConsumer<Object, Object> setter, boolean genericAssignable) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.genericAssignable = genericAssignable;
+        }
+
+        void copy(Object from, Object to, boolean ignoreNull) {
+            try {
+                Object value = getter.apply(from);
+                if (ignoreNull && value == null) {
+                    return;
+                }
+                setter.accept(to, value);
+            } catch (Throwable ex) {
+                throw new FatalBeanException(
+                        "Could not copy property '" + name + "' from source to target", ex);
+            }
+        }
+    }
+
+}
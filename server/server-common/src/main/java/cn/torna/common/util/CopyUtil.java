@@ -6,13 +6,8 @@ import com.gitee.fastmybatis.core.support.PageEasyui;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
-import org.springframework.beans.FatalBeanException;
 import org.springframework.util.Assert;
-import org.springframework.util.ClassUtils;
 
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -40,55 +35,18 @@ public class CopyUtil extends BeanUtils {
             throws BeansException {
         Assert.notNull(from, "Source must not be null");
         Assert.notNull(to, "Target must not be null");
-
-        Class<?> actualEditable = to.getClass();
-        PropertyDescriptor[] targetPds = getPropertyDescriptors(actualEditable);
         List<String> ignoreList = (ignoreProperties != null ? Arrays.asList(ignoreProperties) : null);
-
-        for (PropertyDescriptor targetPd : targetPds) {
-            Method writeMethod = targetPd.getWriteMethod();
-            if (writeMethod != null && (ignoreList == null || !ignoreList.contains(targetPd.getName()))) {
-                PropertyDescriptor sourcePd = getPropertyDescriptor(from.getClass(), targetPd.getName());
-                if (sourcePd != null) {
-                    Method readMethod = sourcePd.getReadMethod();
-                    if (readMethod != null &&
-                            ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType())) {
-                        try {
-                            if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
-                                readMethod.setAccessible(true);
-                            }
-                            Object value = readMethod.invoke(from);
-                            if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
-                                writeMethod.setAccessible(true);
-                            }
-                            // 这里判断value是否为空 当然这里也能进行一些特殊要求的处理
-                            // 例如绑定时格式转换等等
-                            if (value != null) {
-                                if (!Modifier.isPublic(writeMethod
-                                        .getDeclaringClass().getModifiers())) {
-                                    writeMethod.setAccessible(true);
-                                }
-                                writeMethod.invoke(to, value);
-                            }
-                        }
-                        catch (Throwable ex) {
-                            throw new FatalBeanException(
-                                    "Could not copy property '" + targetPd.getName() + "' from source to target", ex);
-                        }
-                    }
-                }
-            }
-        }
+        BeanCopier.get(from.getClass(), to.getClass()).copyPropertiesIgnoreNull(from, to, ignoreList);
     }
 
     public static void copyProperties(Object from, Object to) {
-        BeanUtils.copyProperties(from, to);
+        BeanCopier.copy(from, to);
     }
 
     public static <T> T copyBean(Object from, Supplier<T> supplier) {
         Objects.requireNonNull(from);
         T to = supplier.get();
-        BeanUtils.copyProperties(from, to);
+        BeanCopier.copy(from, to);
         return to;
     }
 
@@ -97,7 +55,7 @@ public class CopyUtil extends BeanUtils {
             return supplier.get();
         }
         T to = supplier.get();
-        BeanUtils.copyProperties(from, to);
+        BeanCopier.copy(from, to);
         return to;
     }
 
@@ -106,7 +64,7 @@ public class CopyUtil extends BeanUtils {
             return null;
         }
         T to = supplier.get();
-        BeanUtils.copyProperties(from, to);
+        BeanCopier.copy(from, to);
         after.accept(to);
         return to;
     }
@@ -118,7 +76,7 @@ public class CopyUtil extends BeanUtils {
         return fromList.stream()
                 .map(source -> {
                     T target = toElement.get();
-                    BeanUtils.copyProperties(source, target);
+                    BeanCopier.copy(source, target);
                     return target;
                 })
                 .collect(Collectors.toList());
@@ -132,7 +90,7 @@ public class CopyUtil extends BeanUtils {
                 .stream()
                 .map(source -> {
                     Object target = toElement.get();
-                    BeanUtils.copyProperties(source, target);
+                    BeanCopier.copy(source, target);
                     return target;
                 })
                 .collect(Collectors.toList());
@@ -147,7 +105,7 @@ public class CopyUtil extends BeanUtils {
         return fromList.stream()
                 .map(source -> {
                     R target = function.apply(source);
-                    BeanUtils.copyProperties(source, target);
+                    BeanCopier.copy(source, target);
                     return target;
                 })
                 .collect(Collectors.toList());
@@ -160,7 +118,7 @@ public class CopyUtil extends BeanUtils {
         return fromList.stream()
                 .map(source -> {
                     T target = toElement.get();
-                    BeanUtils.copyProperties(source, target);
+                    BeanCopier.copy(source, target);
                     after.accept(target);
                     return target;
                 })
@@ -0,0 +1,53 @@
+package cn.torna.common.util;
+
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip压缩、解压
+ *
+ * @author tanghc
+ */
+public class GzipUtil {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * 压缩字符串
+     *
+     * @param text 字符串，UTF-8编码
+     * @return 返回压缩后的内容
+     */
+    public static byte[] compress(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(bytes.length / 8, 64));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 解压成字符串
+     *
+     * @param data compress()返回的内容
+     * @return 返回UTF-8字符串
+     */
+    public static String decompress(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data), BUFFER_SIZE)) {
+            return StreamUtils.copyToString(gzip, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -1,9 +1,15 @@
 package cn.torna.common.util;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.hashids.Hashids;
 
 /**
+ * id和hashid互转。
+ * <p>
+ * 转换结果会缓存起来，编码、解码共用缓存，文档树这种大量id的场景不用每次都计算hashid。
+ *
  * @author tanghc
  */
 @Slf4j
@@ -13,11 +19,29 @@ public class IdUtil {
 
     public static final long MAX = 9007199254740992L;
 
+    private static final int CACHE_SIZE = 50000;
+
+    /** key：id，value：hashid */
+    private static final Cache<Long, String> ENCODE_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
+    /** key：hashid，value：id */
+    private static final Cache<String, Long> DECODE_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
     public static String encode(Long id) {
         if (id == null || id == 0) {
             return "";
         }
-        return hashids.encode(id);
+        String hashId = ENCODE_CACHE.getIfPresent(id);
+        if (hashId == null) {
+            hashId = hashids.encode(id);
+            ENCODE_CACHE.put(id, hashId);
+            DECODE_CACHE.put(hashId, id);
+        }
+        return hashId;
     }
 
     /**
@@ -29,12 +53,22 @@ public class IdUtil {
         if (id == null || "".equals(id)) {
             return null;
         }
+        Long val = DECODE_CACHE.getIfPresent(id);
+        if (val != null) {
+            return val;
+        }
         try {
             long[] arr = hashids.decode(id);
             if (arr == null || arr.length == 0) {
                 return null;
             }
-            return arr[0];
+            val = arr[0];
+            // 只缓存一个id的hashid，非法的hashid不缓存
+            if (arr.length == 1) {
+                DECODE_CACHE.put(id, val);
+                ENCODE_CACHE.put(val, id);
+            }
+            return val;
         } catch (Exception e) {
             log.error("id decode error, id:{}", id, e);
             return null;
@@ -19,6 +19,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author tanghc
@@ -28,6 +29,11 @@ public class JwtUtil {
 
     private static final Map<String, Object> headerClaims = new HashMap<>();
 
+    /**
+     * key：秘钥，value：验证器
+     */
+    private static final Map<String, JWTVerifier> VERIFIER_CACHE = new ConcurrentHashMap<>(4);
+
     /**
      * 登录成功后跳转页面
      */
@@ -66,25 +72,49 @@ public class JwtUtil {
     }
 
     public static Map<String, Claim> verifyJwt(String token, String secret) throws JwtExpiredException, JwtErrorException {
-        JWTVerifier verifier = null;
+        return verify(token, secret).getClaims();
+    }
+
+    /**
+     * 验证jwt
+     * @param token jwt
+     * @param secret 秘钥
+     * @return 返回解析后的jwt
+     * @throws JwtExpiredException jwt过期
+     * @throws JwtErrorException jwt不正确
+     */
+    public static DecodedJWT verify(String token, String secret) throws JwtExpiredException, JwtErrorException {
+        JWTVerifier verifier = getVerifier(secret);
         try {
-            verifier = JWT.require(Algorithm.HMAC256(secret)).build();
+            return verifier.verify(token);
+        } catch (TokenExpiredException e) {
+            throw new JwtExpiredException();
         } catch (Exception e) {
             log.error("验证jwt失败", e);
             throw new JwtErrorException();
         }
+    }
 
-        DecodedJWT jwt;
+    /**
+     * 获取验证器，JWTVerifier是线程安全的，同一个秘钥只创建一次
+     */
+    private static JWTVerifier getVerifier(String secret) throws JwtErrorException {
+        if (secret == null) {
+            log.error("验证jwt失败，secret为null");
+            throw new JwtErrorException();
+        }
+        JWTVerifier verifier = VERIFIER_CACHE.get(secret);
+        if (verifier != null) {
+            return verifier;
+        }
         try {
-            jwt = verifier.verify(token);
-        } catch (TokenExpiredException e) {
-            throw new JwtExpiredException();
+            verifier = JWT.require(Algorithm.HMAC256(secret)).build();
         } catch (Exception e) {
             log.error("验证jwt失败", e);
             throw new JwtErrorException();
         }
-
-        return jwt.getClaims();
+        VERIFIER_CACHE.put(secret, verifier);
+        return verifier;
     }
 
     public static String getJumpPageHtml(String token) {
@@ -3,14 +3,29 @@ package cn.torna.common.util;
 import cn.torna.common.context.SpringContext;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 
+import java.util.concurrent.Executor;
+
 /**
  * @author tanghc
  */
 public class ThreadPoolUtil {
 
+    private static volatile Executor executor;
+
     public static void execute(Runnable runnable) {
-        AsyncConfigurer asyncConfigurer = SpringContext.getBean(AsyncConfigurer.class);
-        asyncConfigurer.getAsyncExecutor().execute(runnable);
+        getExecutor().execute(runnable);
+    }
+
+    private static Executor getExecutor() {
+        if (executor == null) {
+            synchronized (ThreadPoolUtil.class) {
+                if (executor == null) {
+                    AsyncConfigurer asyncConfigurer = SpringContext.getBean(AsyncConfigurer.class);
+                    executor = asyncConfigurer.getAsyncExecutor();
+                }
+            }
+        }
+        return executor;
     }
 
 }
@@ -2,11 +2,17 @@ package cn.torna.common.util;
 
 import cn.torna.common.bean.TreeAware;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * @author tanghc
@@ -27,15 +33,14 @@ public class TreeUtil {
         if (list == null) {
             return Collections.emptyList();
         }
+        Object rootId = parentId;
         List<T> temp = new ArrayList<>();
-        for (int i = 0; i < list.size(); i++) {
-            T item = list.get(i);
-            if (Objects.equals(item.getParentId(), parentId)) {
-                List<T> children = convertTree(list, item.getId());
-                item.setChildren(children);
+        traverse(list, parentId, (item, children) -> {
+            item.setChildren(children);
+            if (Objects.equals(item.getParentId(), rootId)) {
                 temp.add(item);
             }
-        }
+        });
         return temp;
     }
 
@@ -44,13 +49,41 @@ public class TreeUtil {
         if (list == null) {
             return;
         }
-        for (int i = 0; i < list.size(); i++) {
-            T item = list.get(i);
-            if (Objects.equals(item.getParentId(), parentId)) {
-                T parent = idMap.get(item.getParentId());
-                item.setParent(parent);
-                initParent(list, item.getId(), idMap);
+        traverse(list, parentId, (item, children) -> item.setParent(idMap.get(item.getParentId())));
+    }
+
+    /**
+     * 从parentId的子节点开始逐层遍历，先按父节点id分组，整个过程只遍历list一次。
+     * 遍历不到的节点（父节点不存在）不处理，每个节点只处理一次
+     *
+     * @param list     节点列表
+     * @param parentId 根节点的父节点id
+     * @param consumer 参数1：当前节点，参数2：当前节点的子节点，顺序同list
+     * @param <T>      节点类型
+     * @return 返回遍历到的节点，父节点排在子节点前面，倒序遍历即可先处理子节点
+     */
+    public static <T extends TreeAware<T, ?>> List<T> traverse(List<T> list, Object parentId, BiConsumer<T, List<T>> consumer) {
+        if (list == null || list.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Object, List<T>> childrenMap = new HashMap<>(list.size() * 4 / 3 + 1);
+        for (T item : list) {
+            childrenMap.computeIfAbsent(item.getParentId(), k -> new ArrayList<>()).add(item);
+        }
+        List<T> result = new ArrayList<>(list.size());
+        Set<T> visited = Collections.newSetFromMap(new IdentityHashMap<>(list.size() * 4 / 3 + 1));
+        Deque<T> queue = new ArrayDeque<>(childrenMap.getOrDefault(parentId, Collections.emptyList()));
+        while (!queue.isEmpty()) {
+            T item = queue.poll();
+            // 数据有环时避免死循环
+            if (!visited.add(item)) {
+                continue;
             }
+            result.add(item);
+            List<T> children = new ArrayList<>(childrenMap.getOrDefault(item.getId(), Collections.emptyList()));
+            consumer.accept(item, children);
+            queue.addAll(children);
         }
+        return result;
     }
 }
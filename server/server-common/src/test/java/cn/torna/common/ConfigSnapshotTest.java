@@ -0,0 +1,49 @@
+package cn.torna.common;
+
+import cn.torna.common.bean.ConfigSnapshot;
+import cn.torna.common.bean.Configs;
+import cn.torna.common.bean.EnvironmentKeys;
+import cn.torna.common.enums.DocSortType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 配置优先级：数据库>Spring Environment>默认值
+ *
+ * @author tanghc
+ */
+public class ConfigSnapshotTest {
+
+    @Test
+    public void testGetValue() {
+        Map<String, String> configs = new HashMap<>();
+        configs.put(EnvironmentKeys.TORNA_PUSH_PRINT_CONTENT.getKey(), "true");
+        configs.put("torna.version", "12100");
+        Map<String, String> environment = new HashMap<>();
+        environment.put(EnvironmentKeys.TORNA_PUSH_PRINT_CONTENT.getKey(), "false");
+        environment.put(EnvironmentKeys.TORNA_PUSH_OVERRIDE.getKey(), "true");
+        environment.put("torna.jwt.timeout-days", "30");
+
+        ConfigSnapshot snapshot = new ConfigSnapshot(configs, environment::get);
+        Assertions.assertEquals("true", snapshot.getValue(EnvironmentKeys.TORNA_PUSH_PRINT_CONTENT));
+        Assertions.assertEquals("true", snapshot.getValue(EnvironmentKeys.TORNA_PUSH_OVERRIDE));
+        Assertions.assertEquals(DocSortType.BY_ORDER.getType(), snapshot.getValue(EnvironmentKeys.TORNA_DOC_SORT_TYPE));
+        Assertions.assertNull(snapshot.getValue(EnvironmentKeys.TORNA_UPLOAD_DIR));
+        Assertions.assertEquals("12100", snapshot.getValue("torna.version"));
+        Assertions.assertEquals("30", snapshot.getValue("torna.jwt.timeout-days"));
+        Assertions.assertNull(snapshot.getValue("torna.not-exist"));
+
+        Configs.setSnapshot(snapshot);
+        try {
+            Assertions.assertTrue(EnvironmentKeys.TORNA_PUSH_PRINT_CONTENT.getBoolean());
+            Assertions.assertEquals("/data", EnvironmentKeys.TORNA_UPLOAD_DIR.getValue("/data"));
+            Assertions.assertEquals("12100", Configs.getValue("torna.version"));
+        } finally {
+            Configs.setSnapshot(null);
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package cn.torna.common;
 
 import cn.torna.common.support.IdCodec;
+import cn.torna.common.util.IdUtil;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import com.alibaba.fastjson.JSONValidator;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -45,6 +47,18 @@ public class FastjsonTest {
         Assertions.assertEquals(a.idList, a1.idList);
     }
 
+    @Test
+    public void testIdList() {
+        A a = new A();
+        a.setIdList(Arrays.asList(1L, 2L, 3L));
+        String json = JSON.toJSONString(a);
+        String expect = JSON.toJSONString(Arrays.asList(IdUtil.encode(1L), IdUtil.encode(2L), IdUtil.encode(3L)));
+        Assertions.assertEquals("{\"idList\":" + expect + "}", json);
+
+        a.setIdList(Collections.emptyList());
+        Assertions.assertEquals("{\"idList\":null}", JSON.toJSONString(a));
+    }
+
     @Test
     public void testB() {
         B b = new B();
@@ -2,6 +2,7 @@ package cn.torna.common;
 
 import cn.torna.common.util.IdUtil;
 import org.junit.jupiter.api.Assertions;
+import org.hashids.Hashids;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -29,4 +30,20 @@ public class HashidTest {
         Assertions.assertEquals(val, val2);
     }
 
+    @Test
+    public void testCache() {
+        Hashids hashids = new Hashids("@r9#8e.N$z>09=dG", 8);
+        for (long i = 1; i <= 1000; i++) {
+            String hash = IdUtil.encode(i);
+            Assertions.assertEquals(hashids.encode(i), hash);
+            Assertions.assertEquals(hash, IdUtil.encode(i));
+            Assertions.assertEquals(i, IdUtil.decode(hash));
+        }
+        // 先解码再编码
+        String hash = hashids.encode(20000L);
+        Assertions.assertEquals(20000L, IdUtil.decode(hash));
+        Assertions.assertEquals(hash, IdUtil.encode(20000L));
+        Assertions.assertNull(IdUtil.decode("abc"));
+    }
+
 }
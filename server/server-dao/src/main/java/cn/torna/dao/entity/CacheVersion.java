@@ -0,0 +1,49 @@
+package cn.torna.dao.entity;
+
+import java.time.LocalDateTime;
+
+import com.gitee.fastmybatis.annotation.Pk;
+import com.gitee.fastmybatis.annotation.PkStrategy;
+import com.gitee.fastmybatis.annotation.Table;
+
+import lombok.Data;
+
+/**
+ * 表名：cache_version
+ * 备注：缓存失效消息
+ *
+ * @author tanghc
+ */
+@Table(name = "cache_version", pk = @Pk(name = "id", strategy = PkStrategy.INCREMENT))
+@Data
+public class CacheVersion {
+
+    /** 
+     * 主键id
+     */
+    private Long id;
+
+
+    /** 
+     * 缓存类型，对应CacheVersionTypeEnum.type
+     */
+    private String type;
+
+
+    /** 
+     * 数据id
+     */
+    private Long sourceId;
+
+
+    /** 
+     * 发送消息的服务器id
+     */
+    private String nodeId;
+
+
+    private LocalDateTime gmtCreate;
+
+
+
+}
@@ -27,6 +27,9 @@ public class DocInfo {
     /** 文档内容的md5值, 数据库字段：md5 */
     private String md5;
 
+    /** 推送内容的md5值，页面修改后清空, 数据库字段：push_md5 */
+    private String pushMd5;
+
     /** 文档名称, 数据库字段：name */
     private String name;
 
@@ -27,15 +27,24 @@ public class ModuleSwaggerConfig {
     /** swagger文档url, 数据库字段：url */
     private String url;
 
-    /** swagger文档内容, 数据库字段：content */
-    private String content;
-
     /** 认证用户名, 数据库字段：auth_username */
     private String authUsername;
 
     /** 认证密码, 数据库字段：auth_password */
     private String authPassword;
 
+    /** swagger文档内容的md5值，内容存放在module_swagger_content, 数据库字段：content_hash */
+    private String contentHash;
+
+    /** 上次下载时返回的ETag, 数据库字段：etag */
+    private String etag;
+
+    /** 上次下载时返回的Last-Modified, 数据库字段：last_modified */
+    private String lastModified;
+
+    /** 上次刷新时间, 数据库字段：gmt_refresh */
+    private LocalDateTime gmtRefresh;
+
     /**  数据库字段：gmt_create */
     private LocalDateTime gmtCreate;
 
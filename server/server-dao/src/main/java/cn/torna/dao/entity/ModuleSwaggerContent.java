@@ -0,0 +1,58 @@
+package cn.torna.dao.entity;
+
+import java.time.LocalDateTime;
+
+import com.gitee.fastmybatis.annotation.Pk;
+import com.gitee.fastmybatis.annotation.PkStrategy;
+import com.gitee.fastmybatis.annotation.Table;
+
+import lombok.Data;
+
+/**
+ * 表名：module_swagger_content
+ * 备注：swagger文档内容，gzip压缩存放
+ *
+ * @author tanghc
+ */
+@Table(name = "module_swagger_content", pk = @Pk(name = "id", strategy = PkStrategy.INCREMENT))
+@Data
+public class ModuleSwaggerContent {
+
+    /** 
+     * 主键id
+     */
+    private Long id;
+
+
+    /** 
+     * module_swagger_config.id
+     */
+    private Long moduleSwaggerConfigId;
+
+
+    /** 
+     * swagger内容的md5值
+     */
+    private String contentHash;
+
+
+    /** 
+     * 压缩前大小，单位字节
+     */
+    private Integer contentSize;
+
+
+    /** 
+     * gzip压缩后的swagger内容
+     */
+    private byte[] data;
+
+
+    private LocalDateTime gmtCreate;
+
+
+    private LocalDateTime gmtModified;
+
+
+
+}
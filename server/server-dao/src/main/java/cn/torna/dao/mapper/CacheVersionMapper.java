@@ -0,0 +1,25 @@
+package cn.torna.dao.mapper;
+
+import com.gitee.fastmybatis.core.mapper.CrudMapper;
+import cn.torna.dao.entity.CacheVersion;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 表名：cache_version
+ * 备注：缓存失效消息
+ *
+ * @author tanghc
+ */
+public interface CacheVersionMapper extends CrudMapper<CacheVersion, Long> {
+
+    /**
+     * 删除过期消息，使用数据库时间，gmt_create也是数据库生成的，避免与服务器时区不一致
+     *
+     * @param minutes 保留时间，单位分钟
+     * @return 返回删除数量
+     */
+    @Delete("DELETE FROM cache_version WHERE gmt_create < DATE_SUB(NOW(), INTERVAL #{minutes} MINUTE)")
+    int deleteExpired(@Param("minutes") int minutes);
+	
+}
@@ -2,6 +2,9 @@ package cn.torna.dao.mapper;
 
 import cn.torna.dao.entity.DocParam;
 import com.gitee.fastmybatis.core.mapper.CrudMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * @author tanghc
@@ -10,4 +13,11 @@ public interface DocParamMapper extends CrudMapper<DocParam, Long> {
 
     int saveParam(DocParam docParam);
 
+    /**
+     * 批量保存参数，data_id存在则更新
+     * @param items 参数，字段不能为null
+     * @return 返回影响行数
+     */
+    int saveParams(@Param("items") List<DocParam> items);
+
 }
\ No newline at end of file
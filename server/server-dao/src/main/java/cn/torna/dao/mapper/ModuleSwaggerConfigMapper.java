@@ -2,10 +2,31 @@ package cn.torna.dao.mapper;
 
 import cn.torna.dao.entity.ModuleSwaggerConfig;
 import com.gitee.fastmybatis.core.mapper.CrudMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * @author tanghc
  */
 public interface ModuleSwaggerConfigMapper extends CrudMapper<ModuleSwaggerConfig, Long> {
+
+    /**
+     * 查询1.23.0之前存放在content字段的swagger内容，实体类中已没有该字段
+     *
+     * @param id id
+     * @return 返回内容，没有返回null
+     */
+    @Select("SELECT content FROM module_swagger_config WHERE id = #{id}")
+    String getLegacyContent(@Param("id") Long id);
+
+    /**
+     * 查询content字段还有内容的配置id
+     *
+     * @return 返回id
+     */
+    @Select("SELECT id FROM module_swagger_config WHERE content IS NOT NULL")
+    List<Long> listLegacyContentIds();
 	
-}
\ No newline at end of file
+}
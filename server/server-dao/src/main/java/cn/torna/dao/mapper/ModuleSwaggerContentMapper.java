@@ -0,0 +1,14 @@
+package cn.torna.dao.mapper;
+
+import com.gitee.fastmybatis.core.mapper.CrudMapper;
+import cn.torna.dao.entity.ModuleSwaggerContent;
+
+/**
+ * 表名：module_swagger_content
+ * 备注：swagger文档内容，gzip压缩存放
+ *
+ * @author tanghc
+ */
+public interface ModuleSwaggerContentMapper extends CrudMapper<ModuleSwaggerContent, Long> {
+	
+}
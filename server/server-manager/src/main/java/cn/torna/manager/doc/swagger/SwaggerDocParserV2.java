@@ -19,7 +19,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -35,12 +34,12 @@ import java.util.stream.Collectors;
 @Service("swaggerDocParserV2")
 public class SwaggerDocParserV2 implements DocParser<DocBean> {
 
-    private final Set<String> cycleCache = new HashSet<>(8);
-
     @Override
     public DocBean parseJson(String json, ParseConfig config) {
-        cycleCache.clear();
         JSONObject docRoot = JSON.parseObject(json, Feature.OrderedField, Feature.DisableCircularReferenceDetect);
+        // 每次解析使用新的context，可以同时解析多个文档
+        SwaggerParseContext context = new SwaggerParseContext(docRoot);
+        context.putDefinitions("definitions", docRoot.getJSONObject("definitions"));
         JSONObject info = docRoot.getJSONObject("info");
         String requestUrl = this.getRequestUrl(docRoot);
         List<Server> servers = Collections.singletonList(new Server(requestUrl, "调试环境"));
@@ -67,7 +66,7 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
                 apiInfo.setMethod(method);
 
                 JSONObject docBean = pathInfo.getJSONObject(method);
-                DocItem docItem = buildDocItem(apiInfo, docBean, docRoot);
+                DocItem docItem = buildDocItem(apiInfo, docBean, context);
                 String key = docItem.getSummary() + docItem.getDescription();
                 List<DocItem> docItemList = sameMap.computeIfAbsent(key, (k) -> new ArrayList<>());
                 docItemList.add(docItem);
@@ -145,7 +144,7 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
         return produces == null ? Collections.emptyList() : produces.toJavaList(String.class);
     }
 
-    private DocItem buildDocItem(ApiInfo apiInfo, JSONObject docBean, JSONObject docRoot) {
+    private DocItem buildDocItem(ApiInfo apiInfo, JSONObject docBean, SwaggerParseContext context) {
         DocItem docItem = new DocItem();
         docItem.setId(DigestUtils.md5DigestAsHex((apiInfo.toString()).getBytes(StandardCharsets.UTF_8)));
         docItem.setRequestUrl(apiInfo.getRequestUrl());
@@ -156,19 +155,19 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
         docItem.setMultiple(docBean.getString("multiple") != null);
         docItem.setProduces(getProduces(docBean));
         docItem.setConsumes(getConsumes(docBean));
-        String moduleName = this.buildModuleName(docBean, docRoot);
+        String moduleName = this.buildModuleName(docBean, context.getDocRoot());
         docItem.setModule(moduleName);
-        List<DocParameter> requestParameterList = this.buildRequestParameterList(apiInfo, docBean, docRoot);
-        List<DocParameter> queryParameterList = this.buildQueryParameterList(apiInfo, docBean, docRoot);
+        List<DocParameter> requestParameterList = this.buildRequestParameterList(apiInfo, docBean, context);
+        List<DocParameter> queryParameterList = this.buildQueryParameterList(apiInfo, docBean, context);
         boolean hasUploadParam = hasUploadParam(requestParameterList);
         docItem.setUploadRequest(hasUploadParam);
         docItem.setRequestParameters(requestParameterList);
         docItem.setQueryParameters(queryParameterList);
 
         // 清除缓存，可以再次使用
-        cycleCache.clear();
+        context.getCycleCache().clear();
 
-        List<DocParameter> responseParameterList = this.buildResponseParameterList(apiInfo, docBean, docRoot);
+        List<DocParameter> responseParameterList = this.buildResponseParameterList(apiInfo, docBean, context);
         docItem.setResponseParameters(responseParameterList);
 
         return docItem;
@@ -193,7 +192,7 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
         return title;
     }
 
-    private List<DocParameter> buildRequestParameterList(ApiInfo apiInfo, JSONObject docBean, JSONObject docRoot) {
+    private List<DocParameter> buildRequestParameterList(ApiInfo apiInfo, JSONObject docBean, SwaggerParseContext context) {
         JSONArray parameters = this.getParameterObject(docBean);
         List<DocParameter> docParameterList = new ArrayList<>();
         for (int i = 0; i < parameters.size(); i++) {
@@ -209,12 +208,12 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
                     docParameterList.add(docParameter);
                 } else {
                     String fieldType = getFieldType(fieldJson);
-                    List<DocParameter> parameterList = this.buildDocParameters(apiInfo, refInfo, docRoot, true);
+                    List<DocParameter> parameterList = this.buildDocParameters(apiInfo, refInfo, context, true);
                     parameterList.forEach(docParameter -> docParameter.setParentType(fieldType));
                     docParameterList.addAll(parameterList);
                 }
             } else {
-                fieldJson = formatFieldJson(docRoot, fieldJson);
+                fieldJson = formatFieldJson(context, fieldJson);
                 DocParameter docParameter = fieldJson.toJavaObject(DocParameter.class);
                 // @RequestBody String reqEntity
                 // 这种情况下name为null
@@ -228,7 +227,7 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
         return formatDocParameters(docParameterList);
     }
 
-    private List<DocParameter> buildQueryParameterList(ApiInfo apiInfo, JSONObject docBean, JSONObject docRoot) {
+    private List<DocParameter> buildQueryParameterList(ApiInfo apiInfo, JSONObject docBean, SwaggerParseContext context) {
         Optional<JSONArray> parametersOptional = Optional.ofNullable(docBean.getJSONArray("parameters"));
         JSONArray parameters = parametersOptional.orElseGet(JSONArray::new);
         List<DocParameter> docParameterList = new ArrayList<>();
@@ -247,7 +246,7 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
                     }
              */
             JSONObject fieldJson = parameters.getJSONObject(i);
-            fieldJson = formatFieldJson(docRoot, fieldJson);
+            fieldJson = formatFieldJson(context, fieldJson);
             DocParameter docParameter = fieldJson.toJavaObject(DocParameter.class);
             // @RequestBody String reqEntity
             // 这种情况下name为null
@@ -289,7 +288,7 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
                 .collect(Collectors.toList());
     }
 
-    private JSONObject formatFieldJson(JSONObject docRoot, JSONObject fieldJson) {
+    private JSONObject formatFieldJson(SwaggerParseContext context, JSONObject fieldJson) {
         return fieldJson;
     }
 
@@ -368,11 +367,11 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
         return array;
     }
 
-    private List<DocParameter> buildResponseParameterList(ApiInfo apiInfo, JSONObject docBean, JSONObject docRoot) {
+    private List<DocParameter> buildResponseParameterList(ApiInfo apiInfo, JSONObject docBean, SwaggerParseContext context) {
         RefInfo refInfo = getResponseRefInfo(docBean);
         List<DocParameter> respParameterList = Collections.emptyList();
         if (refInfo != null) {
-            respParameterList = this.buildDocParameters(apiInfo, refInfo, docRoot, true);
+            respParameterList = this.buildDocParameters(apiInfo, refInfo, context, true);
             // 如果返回数组
             if (refInfo.getIsArray()) {
                 DocParameter docParameter = new DocParameter();
@@ -385,9 +384,9 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
         return respParameterList;
     }
 
-    private List<DocParameter> buildDocParameters(ApiInfo apiInfo, RefInfo currentRef, JSONObject docRoot, boolean doSubRef) {
+    private List<DocParameter> buildDocParameters(ApiInfo apiInfo, RefInfo currentRef, SwaggerParseContext context, boolean doSubRef) {
         String ref = currentRef.getRef();
-        JSONObject responseObject = getDefinitions(docRoot, currentRef).getJSONObject(ref);
+        JSONObject responseObject = getRefObject(context, currentRef);
         if (responseObject == null) {
             return Collections.emptyList();
         }
@@ -418,11 +417,12 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
                 String subRef = refInfo.getRef();
                 String key = apiInfo.toString() + className + fieldName + ref + subRef;
                 // 避免对象相互依赖导致无限循环
+                Set<String> cycleCache = context.getCycleCache();
                 boolean nextDoRef = !isSameRef(ref, subRef) && !cycleCache.contains(key);
                 if (nextDoRef) {
                     cycleCache.add(key);
                 }
-                List<DocParameter> refs = buildDocParameters(apiInfo, refInfo, docRoot, nextDoRef);
+                List<DocParameter> refs = buildDocParameters(apiInfo, refInfo, context, nextDoRef);
                 docParameter.setType(refInfo.getIsArray() ? DataType.ARRAY : DataType.OBJECT);
                 docParameter.setRefs(refs);
             }
@@ -432,10 +432,16 @@ public class SwaggerDocParserV2 implements DocParser<DocBean> {
         return docParameterList;
     }
 
-    private JSONObject getDefinitions(JSONObject docRoot, RefInfo refInfo) {
-        return Optional.ofNullable(docRoot)
-                .map(jsonObject -> jsonObject.getJSONObject("definitions"))
-                .orElseGet(JSONObject::new);
+    private JSONObject getDefinitions(SwaggerParseContext context, RefInfo refInfo) {
+        return context.getDefinitions("definitions");
+    }
+
+    /**
+     * 获取$ref对应的对象定义
+     */
+    private JSONObject getRefObject(SwaggerParseContext context, RefInfo refInfo) {
+        return context.getRefCache().computeIfAbsent(refInfo.getRawRef(),
+                rawRef -> getDefinitions(context, refInfo).getJSONObject(refInfo.getRef()));
     }
 
     private boolean isSameRef(String ref, String subRef) {
@@ -0,0 +1,67 @@
+package cn.torna.manager.doc.swagger;
+
+import com.alibaba.fastjson.JSONObject;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 一次解析用到的数据，每次解析创建一个。
+ * <p>
+ * 解析器本身不保存状态，可以同时解析多个文档。
+ *
+ * @author tanghc
+ */
+public class SwaggerParseContext {
+
+    /** 文档内容 */
+    private final JSONObject docRoot;
+
+    /** 对象定义，key：definitions、schemas、parameters */
+    private final Map<String, JSONObject> definitionsIndex = new HashMap<>(4);
+
+    /** 防止对象相互依赖导致无限循环，每个接口的请求参数、返回参数解析前清空 */
+    private final Set<String> cycleCache = new HashSet<>(8);
+
+    /** $ref对应的对象定义，key：原始$ref，如#/components/schemas/Order */
+    private final Map<String, JSONObject> refCache = new HashMap<>();
+
+    public SwaggerParseContext(JSONObject docRoot) {
+        this.docRoot = docRoot;
+    }
+
+    public JSONObject getDocRoot() {
+        return docRoot;
+    }
+
+    /**
+     * 添加对象定义
+     *
+     * @param name        名称
+     * @param definitions 对象定义，为null时使用空对象
+     */
+    public void putDefinitions(String name, JSONObject definitions) {
+        definitionsIndex.put(name, definitions == null ? new JSONObject() : definitions);
+    }
+
+    /**
+     * 获取对象定义
+     *
+     * @param name 名称
+     * @return 返回对象定义，没有返回空对象
+     */
+    public JSONObject getDefinitions(String name) {
+        JSONObject definitions = definitionsIndex.get(name);
+        return definitions == null ? new JSONObject() : definitions;
+    }
+
+    public Set<String> getCycleCache() {
+        return cycleCache;
+    }
+
+    public Map<String, JSONObject> getRefCache() {
+        return refCache;
+    }
+}
@@ -0,0 +1,151 @@
+package cn.torna.service;
+
+import cn.torna.common.bean.CacheInvalidationBus;
+import cn.torna.common.enums.CacheVersionTypeEnum;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * 缓存版本号管理，保存在本机内存中。
+ * <p>
+ * 数据有变化时对应的版本号+1，缓存、ETag根据版本号判断是否过期。
+ * 在事务中修改数据时，事务结束后才更新版本号，避免其它请求读到未提交的数据后缓存起来。
+ * <p>
+ * 版本号变化会通过{@link CacheInvalidationBus}通知其它服务器，其它服务器的变化也会更新到本机，
+ * 缓存通过{@link #addListener(CacheVersionTypeEnum, LongConsumer)}注册后即可在多台服务器间同步失效。
+ *
+ * @author tanghc
+ */
+@Service
+public class CacheVersionManager implements InitializingBean {
+
+    /** 事务中修改过的数据 */
+    private static final Object CHANGED_KEY = new Object();
+
+    /** 服务启动时间，重启后版本号从0开始，用来区分重启前后的版本 */
+    private final long epoch = System.currentTimeMillis();
+
+    /** key：id，value：版本号 */
+    private final Map<CacheVersionTypeEnum, Map<Long, AtomicLong>> versionMap = new EnumMap<>(CacheVersionTypeEnum.class);
+
+    private final Map<CacheVersionTypeEnum, List<LongConsumer>> listenerMap = new EnumMap<>(CacheVersionTypeEnum.class);
+
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    public CacheVersionManager() {
+        for (CacheVersionTypeEnum type : CacheVersionTypeEnum.values()) {
+            versionMap.put(type, new ConcurrentHashMap<>());
+            listenerMap.put(type, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getVersion(CacheVersionTypeEnum type, long id) {
+        AtomicLong version = versionMap.get(type).get(id);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * 版本号有变化时回调
+     *
+     * @param type     类型
+     * @param listener 参数为版本号有变化的id
+     */
+    public void addListener(CacheVersionTypeEnum type, LongConsumer listener) {
+        listenerMap.get(type).add(listener);
+    }
+
+    /**
+     * 版本号+1，在事务中则等事务结束后再处理
+     *
+     * @param type 类型
+     * @param id   id
+     */
+    public void incrementVersion(CacheVersionTypeEnum type, Long id) {
+        if (id == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            doIncrementVersion(type, id);
+            return;
+        }
+        // 推送时一个事务会修改很多数据，同一个id只处理一次
+        @SuppressWarnings("unchecked")
+        Map<CacheVersionTypeEnum, Set<Long>> changed = (Map<CacheVersionTypeEnum, Set<Long>>) TransactionSynchronizationManager.getResource(CHANGED_KEY);
+        if (changed == null) {
+            Map<CacheVersionTypeEnum, Set<Long>> changedMap = new EnumMap<>(CacheVersionTypeEnum.class);
+            TransactionSynchronizationManager.bindResource(CHANGED_KEY, changedMap);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHANGED_KEY);
+                    // 回滚也更新版本号，数据没变只是多加载一次
+                    changedMap.forEach((changedType, ids) -> ids.forEach(changedId -> doIncrementVersion(changedType, changedId)));
+                }
+            });
+            changed = changedMap;
+        }
+        changed.computeIfAbsent(type, k -> new LinkedHashSet<>()).add(id);
+    }
+
+    private void doIncrementVersion(CacheVersionTypeEnum type, long id) {
+        applyVersion(type, id);
+        if (cacheInvalidationBus != null) {
+            cacheInvalidationBus.publish(type, id);
+        }
+    }
+
+    /**
+     * 更新本机版本号并通知本机缓存，其它服务器的变化直接调用这里
+     */
+    private void applyVersion(CacheVersionTypeEnum type, long id) {
+        versionMap.get(type).computeIfAbsent(id, k -> new AtomicLong()).incrementAndGet();
+        for (LongConsumer listener : listenerMap.get(type)) {
+            listener.accept(id);
+        }
+    }
+
+    /**
+     * 设置缓存失效消息总线，没有则只在本机生效
+     */
+    @Autowired(required = false)
+    public void setCacheInvalidationBus(CacheInvalidationBus cacheInvalidationBus) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (cacheInvalidationBus != null) {
+            cacheInvalidationBus.subscribe(this::applyVersion);
+        }
+    }
+
+    /**
+     * 根据内容生成ETag
+     *
+     * @param content 内容
+     * @return 返回ETag
+     */
+    public static String buildETag(String content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+}
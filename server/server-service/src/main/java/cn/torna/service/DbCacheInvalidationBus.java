@@ -0,0 +1,251 @@
+package cn.torna.service;
+
+import cn.torna.common.bean.CacheInvalidationBus;
+import cn.torna.common.enums.CacheVersionTypeEnum;
+import cn.torna.common.thread.MyNamedThreadFactory;
+import cn.torna.dao.entity.CacheVersion;
+import cn.torna.dao.mapper.CacheVersionMapper;
+import com.gitee.fastmybatis.core.query.Query;
+import com.gitee.fastmybatis.core.query.Sort;
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.stereotype.Service;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * 通过数据库cache_version表传递缓存失效消息。
+ * <p>
+ * 本机的失效消息先放到队列中，由后台线程批量写入cache_version表，同时读取其它服务器写入的消息。
+ * 多台服务器部署时设置torna.cache-bus.type=db开启，默认关闭，只部署一台服务器时不需要。
+ * <p>
+ * 按id顺序读取，记录读到的最大id。多台服务器同时写入时，id小的消息可能晚提交，
+ * 读取时跳过的id会记下来，之后每次轮询再查一遍，超过一定时间还没有的认为已回滚或是自增id的空洞。
+ *
+ * @author tanghc
+ */
+@Service
+@Slf4j
+@Conditional(DbCacheInvalidationBus.DbTypeCondition.class)
+public class DbCacheInvalidationBus implements CacheInvalidationBus, InitializingBean, DisposableBean {
+
+    /** 每次读取的消息数量 */
+    private static final int BATCH_SIZE = 500;
+
+    /** 最多记录的跳过id数量，超过后丢弃最早的 */
+    private static final int MAX_GAP_SIZE = 5000;
+
+    /** 跳过的id等待提交的时间，写入消息不在大事务中，很快就会提交 */
+    private static final long GAP_TIMEOUT_MILLIS = 60 * 1000L;
+
+    private static final long CLEAN_INTERVAL_MILLIS = 60 * 1000L;
+
+    @Autowired
+    private CacheVersionMapper cacheVersionMapper;
+
+    /** 轮询间隔，毫秒 */
+    @Value("${torna.cache-bus.poll-interval-millis:500}")
+    private long pollIntervalMillis;
+
+    /** 消息保留时间，分钟 */
+    @Value("${torna.cache-bus.keep-minutes:10}")
+    private int keepMinutes;
+
+    private final String nodeId = UUID.randomUUID().toString().replace("-", "");
+
+    /** 待发送的消息，同一条数据只发送一次 */
+    private final Set<Map.Entry<CacheVersionTypeEnum, Long>> pending = new LinkedHashSet<>();
+
+    private final List<BiConsumer<CacheVersionTypeEnum, Long>> receivers = new CopyOnWriteArrayList<>();
+
+    /** 以下字段只在轮询线程中访问 */
+    /** 已读到的最大id */
+    private long lastId = -1;
+    private long lastCleanTime;
+    /** 读取时跳过的id，可能还没提交，key：id，value：发现时间 */
+    private final Map<Long, Long> gapIds = new LinkedHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void publish(CacheVersionTypeEnum type, long id) {
+        synchronized (pending) {
+            pending.add(new AbstractMap.SimpleImmutableEntry<>(type, id));
+        }
+    }
+
+    @Override
+    public void subscribe(BiConsumer<CacheVersionTypeEnum, Long> receiver) {
+        receivers.add(receiver);
+    }
+
+    private void poll() {
+        // 启动时表可能还没创建（升级后才有），出错后下次再试
+        try {
+            flush();
+            receive();
+            clean();
+        } catch (Exception e) {
+            log.warn("cache bus poll failed, message:{}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        List<Map.Entry<CacheVersionTypeEnum, Long>> messages;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            messages = new ArrayList<>(pending);
+            pending.clear();
+        }
+        List<CacheVersion> cacheVersions = new ArrayList<>(messages.size());
+        for (Map.Entry<CacheVersionTypeEnum, Long> message : messages) {
+            CacheVersion cacheVersion = new CacheVersion();
+            cacheVersion.setType(message.getKey().getType());
+            cacheVersion.setSourceId(message.getValue());
+            cacheVersion.setNodeId(nodeId);
+            cacheVersions.add(cacheVersion);
+        }
+        try {
+            cacheVersionMapper.saveBatchIgnoreNull(cacheVersions, BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // 发送失败，放回去下次再发
+            synchronized (pending) {
+                pending.addAll(messages);
+            }
+            throw e;
+        }
+    }
+
+    private void receive() {
+        if (lastId < 0) {
+            // 只处理启动之后的消息
+            Query query = new Query()
+                    .orderby("id", Sort.DESC);
+            Long maxId = cacheVersionMapper.getBySpecifiedColumns(Collections.singletonList("id"), query, Long.class);
+            lastId = maxId == null ? 0 : maxId;
+            return;
+        }
+        long now = System.currentTimeMillis();
+        this.receiveGaps(now);
+        List<CacheVersion> cacheVersions;
+        do {
+            Query query = new Query()
+                    .gt("id", lastId)
+                    .orderby("id", Sort.ASC)
+                    .limit(0, BATCH_SIZE);
+            cacheVersions = cacheVersionMapper.list(query);
+            for (CacheVersion cacheVersion : cacheVersions) {
+                long id = cacheVersion.getId();
+                // 中间跳过的id可能还没提交，下次再查
+                for (long gapId = Math.max(lastId + 1, id - MAX_GAP_SIZE); gapId < id; gapId++) {
+                    this.addGap(gapId, now);
+                }
+                lastId = id;
+                this.dispatch(cacheVersion);
+            }
+        } while (cacheVersions.size() == BATCH_SIZE);
+    }
+
+    /**
+     * 再查一遍之前跳过的id，已提交的消息补发
+     */
+    private void receiveGaps(long now) {
+        if (gapIds.isEmpty()) {
+            return;
+        }
+        gapIds.values().removeIf(time -> now - time > GAP_TIMEOUT_MILLIS);
+        for (List<Long> ids : Lists.partition(new ArrayList<>(gapIds.keySet()), BATCH_SIZE)) {
+            List<CacheVersion> cacheVersions = cacheVersionMapper.list(new Query().in("id", ids));
+            for (CacheVersion cacheVersion : cacheVersions) {
+                gapIds.remove(cacheVersion.getId());
+                this.dispatch(cacheVersion);
+            }
+        }
+    }
+
+    private void addGap(long id, long now) {
+        if (gapIds.size() >= MAX_GAP_SIZE) {
+            Iterator<Long> iterator = gapIds.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+        gapIds.put(id, now);
+    }
+
+    private void dispatch(CacheVersion cacheVersion) {
+        if (nodeId.equals(cacheVersion.getNodeId())) {
+            return;
+        }
+        CacheVersionTypeEnum type = CacheVersionTypeEnum.of(cacheVersion.getType());
+        if (type == null) {
+            return;
+        }
+        for (BiConsumer<CacheVersionTypeEnum, Long> receiver : receivers) {
+            receiver.accept(type, cacheVersion.getSourceId());
+        }
+    }
+
+    private void clean() {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanTime < CLEAN_INTERVAL_MILLIS) {
+            return;
+        }
+        lastCleanTime = now;
+        cacheVersionMapper.deleteExpired(keepMinutes);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (pollIntervalMillis <= 0 || keepMinutes <= 0) {
+            throw new IllegalArgumentException("torna.cache-bus.poll-interval-millis and torna.cache-bus.keep-minutes must be gt 0");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new MyNamedThreadFactory("torna-cache-bus"));
+        scheduler.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        scheduler.shutdown();
+        scheduler.awaitTermination(pollIntervalMillis * 2, TimeUnit.MILLISECONDS);
+        // 发送剩下的消息
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("cache bus flush failed, message:{}", e.getMessage());
+        }
+    }
+
+    /**
+     * torna.cache-bus.type=db时启用，默认不启用
+     */
+    static class DbTypeCondition implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return "db".equalsIgnoreCase(context.getEnvironment().getProperty("torna.cache-bus.type", "none"));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package cn.torna.service;
 import cn.torna.common.bean.LoginUser;
 import cn.torna.common.bean.User;
 import cn.torna.common.bean.UserCacheManager;
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.enums.UserStatusEnum;
 import cn.torna.common.util.CopyUtil;
 import cn.torna.dao.entity.UserInfo;
@@ -29,6 +30,9 @@ public class DefaultUserCacheManager implements UserCacheManager, InitializingBe
     @Autowired
     private UserInfoMapper userInfoMapper;
 
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
     @Value("${torna.user-cache-timeout-minutes:15}")
     private int timeoutMinutes;
 
@@ -85,6 +89,8 @@ public class DefaultUserCacheManager implements UserCacheManager, InitializingBe
     @Override
     public void afterPropertiesSet() throws Exception {
         userCache = buildCache(timeoutMinutes);
+        // 用户修改、禁用后重新加载
+        cacheVersionManager.addListener(CacheVersionTypeEnum.USER, userCache::invalidate);
     }
 
 }
@@ -4,6 +4,7 @@ import cn.torna.common.bean.Booleans;
 import cn.torna.common.bean.EnvironmentKeys;
 import cn.torna.common.bean.User;
 import cn.torna.common.context.SpringContext;
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.enums.DocSortType;
 import cn.torna.common.enums.DocTypeEnum;
 import cn.torna.common.enums.OperationMode;
@@ -17,7 +18,6 @@ import cn.torna.common.util.IdGen;
 import cn.torna.common.util.Markdown2HtmlUtil;
 import cn.torna.dao.entity.DocInfo;
 import cn.torna.dao.entity.DocParam;
-import cn.torna.dao.entity.EnumInfo;
 import cn.torna.dao.entity.Module;
 import cn.torna.dao.entity.ModuleEnvironment;
 import cn.torna.dao.entity.ModuleEnvironmentParam;
@@ -34,7 +34,11 @@ import cn.torna.service.dto.EnumItemDTO;
 import cn.torna.service.dto.ModuleEnvironmentDTO;
 import cn.torna.service.dto.UpdateDocFolderDTO;
 import cn.torna.service.event.DocAddEvent;
+import cn.torna.service.event.DocMenuChangeEvent;
 import cn.torna.service.event.DocUpdateEvent;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
 import com.gitee.fastmybatis.core.query.Query;
 import com.gitee.fastmybatis.core.query.Sort;
 import com.gitee.fastmybatis.core.query.param.PageParam;
@@ -45,18 +49,24 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -67,6 +77,12 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
 
     private static final String REGEX_BR = "<br\\s*/*>";
 
+    /** 计算推送内容md5时排除的字段 */
+    private static final SimplePropertyPreFilter PUSH_MD5_FILTER = new SimplePropertyPreFilter();
+    static {
+        PUSH_MD5_FILTER.getExcludes().addAll(Arrays.asList("id", "gmtCreate", "gmtModified"));
+    }
+
     @Autowired
     private DocParamService docParamService;
 
@@ -88,15 +104,15 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
     @Autowired
     private ModuleEnvironmentParamService moduleEnvironmentParamService;
 
-    @Autowired
-    private EnumInfoService enumInfoService;
-
     @Autowired
     private EnumService enumService;
 
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
     @Autowired
     private PushIgnoreFieldService pushIgnoreFieldService;
 
@@ -154,11 +170,52 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
      * @return 返回文档详情
      */
     public DocInfoDTO getDocDetailView(long docId) {
+        return getDocDetail(getDocView(docId));
+    }
+
+    /**
+     * 查询预览的文档，只查文档本身
+     * @param docId 文档id
+     * @return 返回文档，不存在或不显示返回null
+     */
+    public DocInfo getDocView(long docId) {
         Query query = new Query()
                 .eq("id", docId)
                 .eq("is_show", Booleans.TRUE);
-        DocInfo docInfo = get(query);
-        return getDocDetail(docInfo);
+        return get(query);
+    }
+
+    /**
+     * 返回文档详情的ETag，不加载参数、枚举。
+     * 文档、模块配置、调试环境及公共参数有变化时ETag会变
+     * @param docInfo 文档
+     * @return 返回ETag
+     */
+    public String getDocDetailETag(DocInfo docInfo) {
+        Assert.notNull(docInfo, () -> "文档不存在");
+        long moduleId = docInfo.getModuleId();
+        StringBuilder content = new StringBuilder()
+                .append(cacheVersionManager.getEpoch())
+                .append(':').append(docInfo.getId())
+                .append(':').append(docInfo.getMd5())
+                .append(':').append(cacheVersionManager.getVersion(CacheVersionTypeEnum.MODULE_DOC, moduleId))
+                .append(':').append(cacheVersionManager.getVersion(CacheVersionTypeEnum.MODULE_CONFIG, moduleId));
+        for (ModuleEnvironment moduleEnvironment : moduleEnvironmentService.listModuleEnvironment(moduleId)) {
+            long envId = moduleEnvironment.getId();
+            content.append(':').append(envId).append('-').append(cacheVersionManager.getVersion(CacheVersionTypeEnum.ENVIRONMENT, envId));
+        }
+        return CacheVersionManager.buildETag(content.toString());
+    }
+
+    /**
+     * 查询文档所在的空间
+     * @param docInfo 文档
+     * @return 返回空间id
+     */
+    public Long getSpaceId(DocInfo docInfo) {
+        Assert.notNull(docInfo, () -> "文档不存在");
+        Module module = moduleService.getById(docInfo.getModuleId());
+        return projectService.getSpaceId(module.getProjectId());
     }
 
     /**
@@ -183,15 +240,27 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
 
     public DocInfoDTO getDocInfoDTO(DocInfo docInfo) {
         Assert.notNull(docInfo, () -> "文档不存在");
-        DocInfoDTO docInfoDTO = CopyUtil.copyBean(docInfo, DocInfoDTO::new);
         Long moduleId = docInfo.getModuleId();
         Module module = moduleService.getById(moduleId);
+        List<ModuleEnvironment> debugEnvs = moduleEnvironmentService.listModuleEnvironment(moduleId);
+        List<DocParam> params = docParamService.list("doc_id", docInfo.getId());
+        DocInfoDTO docInfoDTO = buildDocInfoDTO(docInfo, module, debugEnvs, params);
+        // 绑定枚举信息
+        bindEnumInfo(docInfoDTO.getQueryParams(), docInfoDTO.getRequestParams());
+        DubboInfoDTO dubboInfoDTO = buildDubboInfoDTO(docInfo);
+        docInfoDTO.setDubboInfo(dubboInfoDTO);
+        return docInfoDTO;
+    }
+
+    /**
+     * 组装文档信息，不包括枚举信息和dubbo信息
+     */
+    private DocInfoDTO buildDocInfoDTO(DocInfo docInfo, Module module, List<ModuleEnvironment> debugEnvs, List<DocParam> params) {
+        DocInfoDTO docInfoDTO = CopyUtil.copyBean(docInfo, DocInfoDTO::new);
         docInfoDTO.setSpaceId(projectService.getSpaceId(module.getProjectId()));
         docInfoDTO.setProjectId(module.getProjectId());
         docInfoDTO.setModuleType(module.getType());
-        List<ModuleEnvironment> debugEnvs = moduleEnvironmentService.listModuleEnvironment(moduleId);
         docInfoDTO.setDebugEnvs(CopyUtil.copyList(debugEnvs, ModuleEnvironmentDTO::new));
-        List<DocParam> params = docParamService.list("doc_id", docInfo.getId());
         params.sort(Comparator.comparing(DocParam::getOrderIndex));
         Map<Byte, List<DocParam>> paramsMap = params.stream()
                 .collect(Collectors.groupingBy(DocParam::getStyle));
@@ -207,42 +276,62 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
         docInfoDTO.setRequestParams(CopyUtil.copyList(requestParams, DocParamDTO::new));
         docInfoDTO.setResponseParams(CopyUtil.copyList(responseParams, DocParamDTO::new));
         docInfoDTO.setErrorCodeParams(CopyUtil.copyList(errorCodeParams, DocParamDTO::new));
-        // 绑定枚举信息
-        bindEnumInfo(docInfoDTO.getQueryParams());
-        bindEnumInfo(docInfoDTO.getRequestParams());
-        DubboInfoDTO dubboInfoDTO = buildDubboInfoDTO(docInfo);
-        docInfoDTO.setDubboInfo(dubboInfoDTO);
         return docInfoDTO;
     }
 
     private DubboInfoDTO buildDubboInfoDTO(DocInfo docInfo) {
         if (docInfo.getType() == DocTypeEnum.DUBBO.getType()) {
             Map<String, String> docProps = propService.getDocProps(docInfo.getParentId());
-            DubboInfoDTO dubboInfoDTO = new DubboInfoDTO();
-            dubboInfoDTO.setProtocol(docProps.get("protocol"));
-            dubboInfoDTO.setDependency(docProps.get("dependency"));
-            dubboInfoDTO.setAuthor(docProps.get("author"));
-            dubboInfoDTO.setInterfaceName(docProps.get("interfaceName"));
-            return dubboInfoDTO;
+            return buildDubboInfoDTO(docProps);
         }
         return null;
     }
 
+    private static DubboInfoDTO buildDubboInfoDTO(Map<String, String> docProps) {
+        DubboInfoDTO dubboInfoDTO = new DubboInfoDTO();
+        dubboInfoDTO.setProtocol(docProps.get("protocol"));
+        dubboInfoDTO.setDependency(docProps.get("dependency"));
+        dubboInfoDTO.setAuthor(docProps.get("author"));
+        dubboInfoDTO.setInterfaceName(docProps.get("interfaceName"));
+        return dubboInfoDTO;
+    }
+
     /**
-     * 绑定枚举信息
-     * @param docParamDTOS
+     * 绑定枚举信息，所有参数用到的枚举一次查出
+     * @param paramsArr 参数列表
      */
-    private void bindEnumInfo(List<DocParamDTO> docParamDTOS) {
+    @SafeVarargs
+    private final void bindEnumInfo(List<DocParamDTO>... paramsArr) {
+        Set<Long> enumIds = new HashSet<>();
+        for (List<DocParamDTO> docParamDTOS : paramsArr) {
+            collectEnumIds(docParamDTOS, enumIds);
+        }
+        Map<Long, EnumInfoDTO> enumInfoMap = enumService.listEnumInfoMap(enumIds);
+        for (List<DocParamDTO> docParamDTOS : paramsArr) {
+            bindEnumInfo(docParamDTOS, enumInfoMap);
+        }
+    }
+
+    private static void collectEnumIds(List<DocParamDTO> docParamDTOS, Set<Long> enumIds) {
+        for (DocParamDTO docParamDTO : docParamDTOS) {
+            Long enumId = docParamDTO.getEnumId();
+            if (enumId != null && enumId > 0) {
+                enumIds.add(enumId);
+            }
+        }
+    }
+
+    private void bindEnumInfo(List<DocParamDTO> docParamDTOS, Map<Long, EnumInfoDTO> enumInfoMap) {
         for (DocParamDTO docParamDTO : docParamDTOS) {
             Long enumId = docParamDTO.getEnumId();
             if (enumId != null && enumId > 0) {
-                EnumInfo enumInfo = enumInfoService.getById(enumId);
+                EnumInfoDTO enumInfo = enumInfoMap.get(enumId);
                 if (enumInfo == null) {
                     continue;
                 }
+                // 每个参数单独一份，避免序列化时出现循环引用
                 EnumInfoDTO enumInfoDTO = CopyUtil.copyBean(enumInfo, EnumInfoDTO::new);
-                List<EnumItemDTO> enumItemDTOS = enumService.listItems(enumId);
-                enumInfoDTO.setItems(enumItemDTOS);
+                enumInfoDTO.setItems(CopyUtil.copyList(enumInfo.getItems(), EnumItemDTO::new));
                 docParamDTO.setEnumInfo(enumInfoDTO);
             } else if (DataType.ENUM.equalsIgnoreCase(docParamDTO.getType()) && StringUtils.hasText(docParamDTO.getDescription())) {
                 String description = docParamDTO.getDescription();
@@ -276,9 +365,61 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
             return Collections.emptyList();
         }
         List<DocInfo> docInfos = this.listDocByIds(docIdList);
-        return docInfos.stream()
-                .map(this::getDocDetail)
-                .collect(Collectors.toList());
+        if (docInfos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> idList = docInfos.stream().map(DocInfo::getId).collect(Collectors.toList());
+        Set<Long> moduleIds = docInfos.stream().map(DocInfo::getModuleId).collect(Collectors.toSet());
+        // 文档参数、模块、环境各查一次
+        Map<Long, List<DocParam>> docParamsMap = docParamService.listByCollection("doc_id", idList)
+                .stream()
+                .collect(Collectors.groupingBy(DocParam::getDocId));
+        Map<Long, Module> moduleMap = moduleService.listByCollection("id", moduleIds)
+                .stream()
+                .collect(Collectors.toMap(Module::getId, Function.identity()));
+        Map<Long, List<ModuleEnvironment>> debugEnvsMap = moduleEnvironmentService.listByCollection("module_id", moduleIds)
+                .stream()
+                .sorted(Comparator.comparing(ModuleEnvironment::getGmtCreate))
+                .collect(Collectors.groupingBy(ModuleEnvironment::getModuleId));
+        List<DocInfoDTO> docInfoDTOS = new ArrayList<>(docInfos.size());
+        for (DocInfo docInfo : docInfos) {
+            Module module = moduleMap.get(docInfo.getModuleId());
+            Assert.notNull(module, () -> "模块不存在");
+            List<ModuleEnvironment> debugEnvs = debugEnvsMap.getOrDefault(docInfo.getModuleId(), Collections.emptyList());
+            List<DocParam> params = docParamsMap.getOrDefault(docInfo.getId(), new ArrayList<>(0));
+            docInfoDTOS.add(buildDocInfoDTO(docInfo, module, debugEnvs, params));
+        }
+        // 枚举信息查一次
+        Set<Long> enumIds = new HashSet<>();
+        for (DocInfoDTO docInfoDTO : docInfoDTOS) {
+            collectEnumIds(docInfoDTO.getQueryParams(), enumIds);
+            collectEnumIds(docInfoDTO.getRequestParams(), enumIds);
+        }
+        Map<Long, EnumInfoDTO> enumInfoMap = enumService.listEnumInfoMap(enumIds);
+        // dubbo信息查一次
+        Set<Long> dubboFolderIds = docInfos.stream()
+                .filter(docInfo -> docInfo.getType() == DocTypeEnum.DUBBO.getType())
+                .map(DocInfo::getParentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Map<String, String>> docPropsMap = propService.listDocProps(dubboFolderIds);
+        // 全局参数每个模块查一次
+        Map<Long, Map<Byte, List<DocParam>>> globalParamsCache = new HashMap<>(moduleIds.size() * 4 / 3 + 1);
+        for (int i = 0; i < docInfos.size(); i++) {
+            DocInfo docInfo = docInfos.get(i);
+            DocInfoDTO docInfoDTO = docInfoDTOS.get(i);
+            bindEnumInfo(docInfoDTO.getQueryParams(), enumInfoMap);
+            bindEnumInfo(docInfoDTO.getRequestParams(), enumInfoMap);
+            if (docInfo.getType() == DocTypeEnum.DUBBO.getType()) {
+                Map<String, String> docProps = docInfo.getParentId() == null ? Collections.emptyMap()
+                        : docPropsMap.getOrDefault(docInfo.getParentId(), Collections.emptyMap());
+                docInfoDTO.setDubboInfo(buildDubboInfoDTO(docProps));
+            }
+            Map<Byte, List<DocParam>> globalParamsMap = globalParamsCache.computeIfAbsent(docInfo.getModuleId(),
+                    moduleId -> listGlobalParams(docInfoDTO.getDebugEnvs()));
+            bindGlobalParams(docInfoDTO, globalParamsMap);
+        }
+        return docInfoDTOS;
     }
 
     public List<DocInfo> listDocByIds(Collection<Long> docIdList) {
@@ -293,17 +434,34 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
     }
 
 
-    private DocInfoDTO getDocDetail(DocInfo docInfo) {
+    public DocInfoDTO getDocDetail(DocInfo docInfo) {
         DocInfoDTO docInfoDTO = this.getDocInfoDTO(docInfo);
-        Long moduleId = docInfoDTO.getModuleId();
-        List<DocParam> globalHeaders = moduleConfigService.listGlobalHeaders(moduleId);
-        List<DocParam> globalParams = moduleConfigService.listGlobalParams(moduleId);
-        List<DocParam> globalReturns = moduleConfigService.listGlobalReturns(moduleId);
+        bindGlobalParams(docInfoDTO, listGlobalParams(docInfoDTO.getDebugEnvs()));
+        return docInfoDTO;
+    }
+
+    /**
+     * 查询全局参数，取第一个环境。环境已经在debugEnvs中查出，不再单独查询
+     *
+     * @param debugEnvs 模块环境
+     * @return key：参数类型，对应ParamStyleEnum.style
+     */
+    private Map<Byte, List<DocParam>> listGlobalParams(List<ModuleEnvironmentDTO> debugEnvs) {
+        return debugEnvs.stream()
+                .map(ModuleEnvironmentDTO::getId)
+                .min(Long::compare)
+                .map(moduleConfigService::listGlobalByEnvironment)
+                .orElse(Collections.emptyMap());
+    }
+
+    private static void bindGlobalParams(DocInfoDTO docInfoDTO, Map<Byte, List<DocParam>> globalParamsMap) {
+        List<DocParam> globalHeaders = globalParamsMap.getOrDefault(ParamStyleEnum.HEADER.getStyle(), Collections.emptyList());
+        List<DocParam> globalParams = globalParamsMap.getOrDefault(ParamStyleEnum.REQUEST.getStyle(), Collections.emptyList());
+        List<DocParam> globalReturns = globalParamsMap.getOrDefault(ParamStyleEnum.RESPONSE.getStyle(), Collections.emptyList());
         docInfoDTO.setGlobalHeaders(CopyUtil.copyList(globalHeaders, DocParamDTO::new));
         docInfoDTO.setGlobalParams(CopyUtil.copyList(globalParams, DocParamDTO::new));
         docInfoDTO.setGlobalReturns(CopyUtil.copyList(globalReturns, DocParamDTO::new));
         docInfoDTO.getGlobalHeaders().forEach(docParamDTO -> docParamDTO.setGlobal(true));
-        return docInfoDTO;
     }
 
     /**
@@ -347,35 +505,26 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
 
     public List<DocMeta> listDocMeta(long moduleId) {
         Query query = new Query().eq("module_id", moduleId);
-        return this.getMapper().listBySpecifiedColumns(Arrays.asList("data_id", "is_locked", "md5"), query, DocMeta.class);
+        return this.getMapper().listBySpecifiedColumns(Arrays.asList("id", "data_id", "is_locked", "md5", "push_md5", "create_mode"), query, DocMeta.class);
     }
 
-    public static boolean isLocked(String dataId, List<DocMeta> docMetas) {
-        if (CollectionUtils.isEmpty(docMetas)) {
-            return false;
-        }
-        for (DocMeta docMeta : docMetas) {
-            if (Objects.equals(dataId, docMeta.getDataId()) && docMeta.getIsLocked() == Booleans.TRUE) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    public static boolean isContentChanged(String dataId, String newMd5, List<DocMeta> docMetas) {
-        if (CollectionUtils.isEmpty(docMetas)) {
-            return false;
-        }
-        for (DocMeta docMeta : docMetas) {
-            // 为空的不校验
-            if (StringUtils.isEmpty(docMeta.getMd5())) {
-                continue;
-            }
-            if (Objects.equals(dataId, docMeta.getDataId()) && !Objects.equals(newMd5, docMeta.getMd5())) {
-                return true;
-            }
+    /**
+     * 删除推送的文档及参数，被锁住的文档不删除
+     * @param docIdList 文档id
+     */
+    public void deleteOpenAPIDocs(List<Long> docIdList) {
+        if (CollectionUtils.isEmpty(docIdList)) {
+            return;
         }
-        return false;
+        Query delQuery = new Query()
+                .in("id", docIdList)
+                .eq("create_mode", OperationMode.OPEN.getType())
+                .eq("is_locked", Booleans.FALSE);
+        List<Long> moduleIdList = this.getMapper().listBySpecifiedColumns(Collections.singletonList("module_id"), delQuery, Long.class);
+        this.getMapper().deleteByQuery(delQuery);
+        // 删除文档对应的参数
+        docParamService.deletePushParam(docIdList);
+        new HashSet<>(moduleIdList).forEach(this::publishMenuChange);
     }
 
     public DocInfo doSaveDocInfo(DocInfoDTO docInfoDTO, User user) {
@@ -414,12 +563,15 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
     }
 
     private void doUpdateParams(DocInfo docInfo, DocInfoDTO docInfoDTO, User user) {
-        docParamService.saveParams(docInfo, docInfoDTO.getPathParams(), ParamStyleEnum.PATH, user);
-        docParamService.saveParams(docInfo, docInfoDTO.getHeaderParams(), ParamStyleEnum.HEADER, user);
-        docParamService.saveParams(docInfo, docInfoDTO.getQueryParams(), ParamStyleEnum.QUERY, user);
-        docParamService.saveParams(docInfo, docInfoDTO.getRequestParams(), ParamStyleEnum.REQUEST, user);
-        docParamService.saveParams(docInfo, docInfoDTO.getResponseParams(), ParamStyleEnum.RESPONSE, user);
-        docParamService.saveParams(docInfo, docInfoDTO.getErrorCodeParams(), ParamStyleEnum.ERROR_CODE, user);
+        Map<ParamStyleEnum, List<DocParamDTO>> styleParams = new LinkedHashMap<>(8);
+        styleParams.put(ParamStyleEnum.PATH, docInfoDTO.getPathParams());
+        styleParams.put(ParamStyleEnum.HEADER, docInfoDTO.getHeaderParams());
+        styleParams.put(ParamStyleEnum.QUERY, docInfoDTO.getQueryParams());
+        styleParams.put(ParamStyleEnum.REQUEST, docInfoDTO.getRequestParams());
+        styleParams.put(ParamStyleEnum.RESPONSE, docInfoDTO.getResponseParams());
+        styleParams.put(ParamStyleEnum.ERROR_CODE, docInfoDTO.getErrorCodeParams());
+        // 所有类型的参数一起按层级批量保存
+        docParamService.saveParams(docInfo, styleParams, user);
     }
 
     private DocInfo saveBaseInfo(DocInfoDTO docInfoDTO, User user) {
@@ -431,9 +583,27 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
         String docMd5 = getDocMd5(docInfoDTO);
         docInfo.setMd5(docMd5);
         this.getMapper().saveDocInfo(docInfo);
+        publishMenuChange(docInfo.getModuleId());
         return docInfo;
     }
 
+    @Override
+    public int update(DocInfo entity) {
+        int cnt = super.update(entity);
+        publishMenuChange(entity.getModuleId());
+        return cnt;
+    }
+
+    /**
+     * 通知模块下的文档菜单有变化
+     * @param moduleId 模块id
+     */
+    private void publishMenuChange(Long moduleId) {
+        if (moduleId != null) {
+            SpringContext.publishEvent(new DocMenuChangeEvent(moduleId));
+        }
+    }
+
     private DocInfo modifyDocInfo(DocInfo docInfo, DocInfoDTO docInfoDTO, User user) {
         String descriptionOld = docInfo.getDescription();
         String descriptionNew = docInfoDTO.getDescription();
@@ -441,6 +611,8 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
         String newMd5 = getDocMd5(docInfoDTO);
         CopyUtil.copyPropertiesIgnoreNull(docInfoDTO, docInfo);
         docInfo.setMd5(newMd5);
+        // 页面上修改过，下次增量推送时不能跳过
+        docInfo.setPushMd5("");
         // 手动赋值
         docInfo.setCreateMode(user.getOperationModel());
         docInfo.setModifyMode(user.getOperationModel());
@@ -471,6 +643,18 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
         return DocMd5BuilderManager.getBuilder().buildMd5(docInfoDTO);
     }
 
+    /**
+     * 计算推送内容的md5值，包含文档所有字段、参数树及枚举信息，增量推送时用来判断文档是否有变化。
+     * getDocMd5()只包含部分字段，不能用来判断
+     *
+     * @param docInfoDTO 推送的文档
+     * @return 返回md5值
+     */
+    public static String getPushMd5(DocInfoDTO docInfoDTO) {
+        String json = JSON.toJSONString(docInfoDTO, PUSH_MD5_FILTER, SerializerFeature.SortField, SerializerFeature.MapSortField);
+        return DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8));
+    }
+
     private DocInfo buildDocInfo(DocInfoDTO docInfoDTO, User user) {
         DocInfo docInfo = CopyUtil.copyBean(docInfoDTO, DocInfo::new);
         // 手动赋值
@@ -487,6 +671,9 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
         if (docInfo.getDeprecated() == null) {
             docInfo.setDeprecated("$false$");
         }
+        if (docInfo.getPushMd5() == null) {
+            docInfo.setPushMd5("");
+        }
         // 描述字段忽略
         if (pushIgnoreFieldService.isPushIgnore(docInfoDTO.getModuleId(), docInfoDTO.buildDataId(), "description")) {
             docInfo.setDescription(null);
@@ -645,6 +832,7 @@ public class DocInfoService extends BaseService<DocInfo, DocInfoMapper> {
 
         // 删除文档对应的参数
         docParamService.deletePushParam(docIdList);
+        publishMenuChange(moduleId);
     }
 
     /**
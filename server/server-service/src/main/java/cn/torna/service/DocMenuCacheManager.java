@@ -0,0 +1,168 @@
+package cn.torna.service;
+
+import cn.torna.common.bean.Booleans;
+import cn.torna.common.bean.EnvironmentKeys;
+import cn.torna.common.enums.CacheVersionTypeEnum;
+import cn.torna.common.util.IdUtil;
+import cn.torna.dao.entity.DocInfo;
+import cn.torna.service.dto.TreeDTO;
+import cn.torna.service.event.DocMenuChangeEvent;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文档预览页左侧菜单缓存，按模块缓存。
+ * <p>
+ * 模块下文档有变化时版本号+1，缓存的菜单版本号不一致时重新加载，版本号见{@link CacheVersionManager}。
+ *
+ * @author tanghc
+ */
+@Service
+public class DocMenuCacheManager implements ApplicationListener<DocMenuChangeEvent>, InitializingBean {
+
+    @Autowired
+    private DocInfoService docInfoService;
+
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
+    @Value("${torna.view.menu-cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${torna.view.menu-cache.timeout-minutes:30}")
+    private int timeoutMinutes;
+
+    // key: moduleId
+    private Cache<Long, ModuleMenu> menuCache;
+
+    /**
+     * 获取模块下的文档菜单，不包含模块节点
+     *
+     * @param moduleId 模块id
+     * @param base     模块节点id
+     * @return 返回新的节点列表，可以直接修改
+     */
+    public List<TreeDTO> listModuleMenu(long moduleId, String base) {
+        long version = getVersion(moduleId);
+        String sortType = EnvironmentKeys.TORNA_DOC_SORT_TYPE.getValue();
+        ModuleMenu moduleMenu = menuCache.getIfPresent(moduleId);
+        if (moduleMenu == null || !moduleMenu.isValid(base, version, sortType)) {
+            // 先取版本号再查库，查询期间版本号变了，下次会重新加载
+            List<DocInfo> docInfos = docInfoService.listDocMenuView(moduleId);
+            moduleMenu = new ModuleMenu(base, version, sortType, buildMenu(base, docInfos));
+            menuCache.put(moduleId, moduleMenu);
+        }
+        List<TreeDTO> nodes = moduleMenu.nodes;
+        List<TreeDTO> ret = new ArrayList<>(nodes.size());
+        for (TreeDTO node : nodes) {
+            ret.add(copyNode(node));
+        }
+        return ret;
+    }
+
+    /**
+     * 获取多个模块的菜单版本，任意一个模块文档有变化或修改了排序方式，返回值都会不同
+     *
+     * @param moduleIds 模块id
+     * @return 返回版本
+     */
+    public String getMenuVersion(Collection<Long> moduleIds) {
+        StringBuilder builder = new StringBuilder()
+                .append(cacheVersionManager.getEpoch())
+                .append(':')
+                .append(EnvironmentKeys.TORNA_DOC_SORT_TYPE.getValue());
+        for (Long moduleId : moduleIds) {
+            builder.append(':').append(moduleId).append('-').append(getVersion(moduleId));
+        }
+        return builder.toString();
+    }
+
+    public long getVersion(long moduleId) {
+        return cacheVersionManager.getVersion(CacheVersionTypeEnum.MODULE_DOC, moduleId);
+    }
+
+    private static List<TreeDTO> buildMenu(String base, List<DocInfo> docInfos) {
+        List<TreeDTO> nodes = new ArrayList<>(docInfos.size());
+        for (DocInfo docInfo : docInfos) {
+            boolean isFolder = Booleans.isTrue(docInfo.getIsFolder());
+            String id = isFolder ? DocViewService.buildId(base, docInfo.getId()) : IdUtil.encode(docInfo.getId());
+            String parentId = DocViewService.buildParentId(base, docInfo.getParentId());
+            byte type = isFolder ? DocViewService.TYPE_FOLDER : DocViewService.TYPE_DOC;
+            TreeDTO docInfoVO = new TreeDTO(id, docInfo.getName(), parentId, type);
+            docInfoVO.setHttpMethod(docInfo.getHttpMethod());
+            docInfoVO.setDocType(docInfo.getType());
+            docInfoVO.setDocId(docInfo.getId());
+            // 如果是文档
+            if (!isFolder) {
+                docInfoVO.setUrl(docInfo.getUrl());
+                String deprecated = docInfo.getDeprecated();
+                if (deprecated == null) {
+                    deprecated = "$false$";
+                }
+                docInfoVO.setDeprecated(deprecated);
+            }
+            nodes.add(docInfoVO);
+        }
+        return nodes;
+    }
+
+    private static TreeDTO copyNode(TreeDTO node) {
+        TreeDTO treeDTO = new TreeDTO(node.getId(), node.getLabel(), node.getParentId(), node.getType());
+        treeDTO.setHttpMethod(node.getHttpMethod());
+        treeDTO.setDocType(node.getDocType());
+        treeDTO.setDocId(node.getDocId());
+        treeDTO.setUrl(node.getUrl());
+        treeDTO.setDeprecated(node.getDeprecated());
+        return treeDTO;
+    }
+
+    @Override
+    public void onApplicationEvent(DocMenuChangeEvent event) {
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.MODULE_DOC, event.getModuleId());
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (maxSize <= 0 || timeoutMinutes <= 0) {
+            throw new IllegalArgumentException("torna.view.menu-cache.max-size and torna.view.menu-cache.timeout-minutes must be gt 0");
+        }
+        menuCache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(timeoutMinutes, TimeUnit.MINUTES)
+                .build();
+        cacheVersionManager.addListener(CacheVersionTypeEnum.MODULE_DOC, menuCache::invalidate);
+    }
+
+    private static class ModuleMenu {
+        private final String base;
+        private final long version;
+        private final String sortType;
+        /** 缓存的节点，不对外暴露，返回时拷贝一份 */
+        private final List<TreeDTO> nodes;
+
+        ModuleMenu(String base, long version, String sortType, List<TreeDTO> nodes) {
+            this.base = base;
+            this.version = version;
+            this.sortType = sortType;
+            this.nodes = nodes;
+        }
+
+        boolean isValid(String base, long version, String sortType) {
+            return this.version == version
+                    && Objects.equals(this.base, base)
+                    && Objects.equals(this.sortType, sortType);
+        }
+    }
+
+}
@@ -14,12 +14,20 @@ import cn.torna.dao.mapper.DocParamMapper;
 import cn.torna.service.dto.DocParamDTO;
 import cn.torna.service.dto.EnumInfoDTO;
 import com.gitee.fastmybatis.core.query.Query;
+import com.google.common.collect.Lists;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * @author tanghc
@@ -30,6 +38,16 @@ public class DocParamService extends BaseService<DocParam, DocParamMapper> {
     @Autowired
     private EnumService enumService;
 
+    /**
+     * 批量保存参数时每条SQL的最大行数
+     */
+    @Value("${torna.push.param-batch-size:500}")
+    private int batchSize;
+
+    /** 批量写入前查询已存在的参数，只查可能为null的字段 */
+    private static final List<String> EXIST_COLUMNS = Arrays.asList("id", "data_id", "name", "type", "required",
+            "example", "creator_name", "modifier_name", "order_index", "is_deleted");
+
     public DocParam getByDataId(String dataId) {
         return get("data_id", dataId);
     }
@@ -39,11 +57,132 @@ public class DocParamService extends BaseService<DocParam, DocParamMapper> {
         if (CollectionUtils.isEmpty(docParamDTOS)) {
             return;
         }
-        for (DocParamDTO docParamDTO : docParamDTOS) {
-            this.doSave(docParamDTO, 0L, docInfo, paramStyleEnum, user);
+        this.saveParams(docInfo, Collections.singletonMap(paramStyleEnum, docParamDTOS), user);
+    }
+
+    /**
+     * 保存文档参数。按层级批量保存，每一层只执行一次批量写入和一次父节点id查询
+     * @param docInfo 文档
+     * @param styleParams key：参数类型，value：参数
+     * @param user 操作人
+     */
+    public void saveParams(DocInfo docInfo, Map<ParamStyleEnum, List<DocParamDTO>> styleParams, User user) {
+        List<ParamNode> nodes = new ArrayList<>();
+        styleParams.forEach((paramStyleEnum, docParamDTOS) -> {
+            if (docParamDTOS == null) {
+                return;
+            }
+            for (DocParamDTO docParamDTO : docParamDTOS) {
+                nodes.add(new ParamNode(docParamDTO, 0L, paramStyleEnum));
+            }
+        });
+        List<ParamNode> level = nodes;
+        while (!level.isEmpty()) {
+            level = this.saveLevel(level, docInfo, user);
         }
     }
 
+    /**
+     * 保存同一层级的参数
+     * @return 返回下一层级的参数
+     */
+    private List<ParamNode> saveLevel(List<ParamNode> nodes, DocInfo docInfo, User user) {
+        List<DocParam> tobeSave = new ArrayList<>(nodes.size());
+        for (ParamNode node : nodes) {
+            DocParam docParam = this.buildDocParam(node.docParamDTO, node.parentId, docInfo, node.paramStyleEnum, user);
+            node.docParam = docParam;
+            if (docParam.getId() == null) {
+                tobeSave.add(docParam);
+            } else {
+                this.update(docParam);
+            }
+        }
+        // 批量写入的字段不能为null，已存在的参数保留数据库中的值，新参数使用表字段默认值
+        Map<String, DocParam> existMap = this.getExistMap(tobeSave);
+        for (DocParam docParam : tobeSave) {
+            fillNullValue(docParam, existMap.get(docParam.getDataId()));
+        }
+        for (List<DocParam> items : Lists.partition(tobeSave, batchSize)) {
+            this.getMapper().saveParams(items);
+        }
+        // 批量写入不回填主键，有子节点的新参数需要查出id
+        List<String> parentDataIds = nodes.stream()
+                .filter(node -> node.docParam.getId() == null && node.docParamDTO.getChildren() != null)
+                .map(node -> node.docParam.getDataId())
+                .filter(dataId -> !existMap.containsKey(dataId))
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, Long> dataIdMap = new HashMap<>(this.getIdMap(parentDataIds));
+        existMap.forEach((dataId, exist) -> dataIdMap.put(dataId, exist.getId()));
+        List<ParamNode> nextLevel = new ArrayList<>();
+        for (ParamNode node : nodes) {
+            List<DocParamDTO> children = node.docParamDTO.getChildren();
+            if (children == null) {
+                continue;
+            }
+            DocParam docParam = node.docParam;
+            Long pid = docParam.getId() != null ? docParam.getId() : dataIdMap.get(docParam.getDataId());
+            for (DocParamDTO child : children) {
+                // 如果父节点被删除，子节点也要删除
+                if (Booleans.isTrue(docParam.getIsDeleted())) {
+                    child.setIsDeleted(docParam.getIsDeleted());
+                }
+                if (pid == null) {
+                    continue;
+                }
+                nextLevel.add(new ParamNode(child, pid, node.paramStyleEnum));
+            }
+        }
+        return nextLevel;
+    }
+
+    /**
+     * 根据data_id查询id
+     * @param dataIds data_id
+     * @return key：data_id，value：id
+     */
+    /**
+     * 查询已存在的参数
+     * @param docParams 待保存的参数
+     * @return key：dataId
+     */
+    private Map<String, DocParam> getExistMap(List<DocParam> docParams) {
+        if (docParams.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> dataIds = docParams.stream()
+                .map(DocParam::getDataId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, DocParam> existMap = new HashMap<>(dataIds.size() * 2);
+        for (List<String> part : Lists.partition(dataIds, batchSize)) {
+            Query query = new Query()
+                    .in("data_id", part)
+                    .ignoreLogicDeleteColumn();
+            for (DocParam docParam : this.getMapper().listBySpecifiedColumns(EXIST_COLUMNS, query)) {
+                existMap.put(docParam.getDataId(), docParam);
+            }
+        }
+        return existMap;
+    }
+
+    private Map<String, Long> getIdMap(List<String> dataIds) {
+        if (dataIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Long> dataIdMap = new HashMap<>(dataIds.size() * 2);
+        for (List<String> part : Lists.partition(dataIds, batchSize)) {
+            Query query = new Query()
+                    .in("data_id", part)
+                    .ignoreLogicDeleteColumn();
+            List<DocParam> list = this.getMapper().listBySpecifiedColumns(Arrays.asList("id", "data_id"), query);
+            for (DocParam docParam : list) {
+                dataIdMap.put(docParam.getDataId(), docParam.getId());
+            }
+        }
+        return dataIdMap;
+    }
+
     private List<DocParam> listParentParam(long docId, ParamStyleEnum paramStyleEnum) {
         Query query = new Query()
                 .eq("doc_id", docId)
@@ -72,7 +211,7 @@ public class DocParamService extends BaseService<DocParam, DocParamMapper> {
         }
     }
 
-    private void doSave(DocParamDTO docParamDTO, long parentId, DocInfo docInfo, ParamStyleEnum paramStyleEnum, User user) {
+    private DocParam buildDocParam(DocParamDTO docParamDTO, long parentId, DocInfo docInfo, ParamStyleEnum paramStyleEnum, User user) {
         DocParam docParam = new DocParam();
         Long docId = docInfo.getId();
         String dataId = DataIdUtil.getDocParamDataId(docId, parentId, paramStyleEnum.getStyle(), docParamDTO.getName());
@@ -103,33 +242,38 @@ public class DocParamService extends BaseService<DocParam, DocParamMapper> {
         if (docParam.getDescription() == null) {
             docParam.setDescription("");
         }
-        DocParam savedParam;
-        if (docParam.getId() == null) {
-            savedParam = this.saveParam(docParam);
-        } else {
-            this.update(docParam);
-            savedParam = docParam;
-        }
-        List<DocParamDTO> children = docParamDTO.getChildren();
-        if (children != null) {
-            Long pid = savedParam.getId();
-            // 修复NPE问题
-            if (pid == null) {
-                DocParam exist = getByDataId(savedParam.getDataId());
-                if (exist != null) {
-                    pid = exist.getId();
-                }
-            }
-            for (DocParamDTO child : children) {
-                // 如果父节点被删除，子节点也要删除
-                if (docParam.getIsDeleted() == Booleans.TRUE) {
-                    child.setIsDeleted(docParam.getIsDeleted());
-                }
-                if (pid == null) {
-                    continue;
-                }
-                this.doSave(child, pid, docInfo, paramStyleEnum, user);
-            }
+        return docParam;
+    }
+
+    /**
+     * 填充为null的字段，批量写入时所有字段都会更新
+     * @param docParam 待保存的参数
+     * @param exist 数据库中已存在的参数，没有为null，此时使用表字段默认值
+     */
+    private static void fillNullValue(DocParam docParam, DocParam exist) {
+        if (docParam.getName() == null) {
+            docParam.setName(exist != null ? exist.getName() : "");
+        }
+        if (docParam.getType() == null) {
+            docParam.setType(exist != null ? exist.getType() : "String");
+        }
+        if (docParam.getRequired() == null) {
+            docParam.setRequired(exist != null ? exist.getRequired() : Booleans.FALSE);
+        }
+        if (docParam.getExample() == null) {
+            docParam.setExample(exist != null ? exist.getExample() : "");
+        }
+        if (docParam.getCreatorName() == null) {
+            docParam.setCreatorName(exist != null ? exist.getCreatorName() : "");
+        }
+        if (docParam.getModifierName() == null) {
+            docParam.setModifierName(exist != null ? exist.getModifierName() : "");
+        }
+        if (docParam.getOrderIndex() == null) {
+            docParam.setOrderIndex(exist != null ? exist.getOrderIndex() : 0);
+        }
+        if (docParam.getIsDeleted() == null) {
+            docParam.setIsDeleted(exist != null ? exist.getIsDeleted() : Booleans.FALSE);
         }
     }
 
@@ -182,4 +326,17 @@ public class DocParamService extends BaseService<DocParam, DocParamMapper> {
     }
 
 
+    private static class ParamNode {
+        private final DocParamDTO docParamDTO;
+        private final long parentId;
+        private final ParamStyleEnum paramStyleEnum;
+        private DocParam docParam;
+
+        ParamNode(DocParamDTO docParamDTO, long parentId, ParamStyleEnum paramStyleEnum) {
+            this.docParamDTO = docParamDTO;
+            this.parentId = parentId;
+            this.paramStyleEnum = paramStyleEnum;
+        }
+    }
+
 }
@@ -32,15 +32,20 @@ public class DocViewService {
      */
     public static void calcDocCount(List<TreeDTO> list) {
         Map<String, TreeDTO> idMap = list.stream().collect(Collectors.toMap(TreeDTO::getId, Function.identity()));
-        TreeUtil.initParent(list, "", idMap);
-        for (TreeDTO TreeDTO : list) {
+        List<TreeDTO> nodes = TreeUtil.traverse(list, "", (item, children) -> item.setParent(idMap.get(item.getParentId())));
+        // 倒序遍历，子节点先于父节点处理，子节点的数量累加到父节点上
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            TreeDTO item = nodes.get(i);
+            TreeDTO parent = item.getParent();
+            if (parent == null) {
+                continue;
+            }
+            int count = item.getApiCount();
             // 如果是文档类型，父节点数量+1
-            if (Objects.equals(TreeDTO.getType(), TYPE_DOC)) {
-                TreeDTO parent = TreeDTO.getParent();
-                if (parent != null) {
-                    parent.addApiCount();
-                }
+            if (Objects.equals(item.getType(), TYPE_DOC)) {
+                count++;
             }
+            parent.setApiCount(parent.getApiCount() + count);
         }
     }
 
@@ -57,18 +62,16 @@ public class DocViewService {
         if (list == null) {
             return Collections.emptyList();
         }
+        String rootId = parentId;
         List<TreeDTO> temp = new ArrayList<>();
-        for (int i = 0; i < list.size(); i++) {
-            TreeDTO item = list.get(i);
-            // 如果有子节点
-            if (Objects.equals(item.getParentId(), parentId)) {
-                List<TreeDTO> children = convertTree(list, item.getId(), idMap);
-                item.setChildren(children);
-                TreeDTO parent = idMap.get(item.getParentId());
-                item.setParent(parent);
+        TreeUtil.traverse(list, parentId, (item, children) -> {
+            item.setChildren(children);
+            TreeDTO parent = idMap.get(item.getParentId());
+            item.setParent(parent);
+            if (Objects.equals(item.getParentId(), rootId)) {
                 temp.add(item);
             }
-        }
+        });
         return temp;
     }
 
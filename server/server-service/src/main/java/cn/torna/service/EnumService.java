@@ -1,6 +1,7 @@
 package cn.torna.service;
 
 import cn.torna.common.bean.Booleans;
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.exception.BizException;
 import cn.torna.common.util.CopyUtil;
 import cn.torna.dao.entity.EnumInfo;
@@ -14,7 +15,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * @author tanghc
@@ -28,6 +35,9 @@ public class EnumService {
     @Autowired
     private EnumItemService enumItemService;
 
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
     public List<EnumInfoDTO> listAll(long moduleId) {
         Query query = new Query()
                 .eq("module_id", moduleId);
@@ -63,6 +73,7 @@ public class EnumService {
         }
         List<EnumItemDTO> items = enumInfoDTO.getItems();
         this.updateItems(enumInfo, items);
+        this.incrementModuleVersion(enumInfo);
         return enumInfo;
     }
 
@@ -81,6 +92,7 @@ public class EnumService {
         EnumInfo enumInfo  = CopyUtil.copyBean(enumInfoDTO, EnumInfo::new);
         enumInfo.setDataId(dataId);
         enumInfoService.save(enumInfo);
+        this.incrementModuleVersion(enumInfo);
         return enumInfo;
     }
 
@@ -89,9 +101,39 @@ public class EnumService {
         EnumInfo enumInfo = CopyUtil.copyBean(enumInfoDTO, EnumInfo::new);
         enumInfo.setDataId(enumInfoDTO.buildDataId());
         enumInfoService.update(enumInfo);
+        this.incrementModuleVersion(enumInfo.getId());
         return enumInfo;
     }
 
+    /**
+     * 批量查询枚举信息及枚举项
+     *
+     * @param enumIds 枚举id
+     * @return key：枚举id，不存在的枚举不返回
+     */
+    public Map<Long, EnumInfoDTO> listEnumInfoMap(Collection<Long> enumIds) {
+        if (CollectionUtils.isEmpty(enumIds)) {
+            return Collections.emptyMap();
+        }
+        List<EnumInfo> enumInfoList = enumInfoService.listByCollection("id", enumIds);
+        if (enumInfoList.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Query query = new Query()
+                .in("enum_id", enumIds)
+                .orderby("id", Sort.ASC);
+        Map<Long, List<EnumItemDTO>> enumItemMap = CopyUtil.copyList(enumItemService.list(query), EnumItemDTO::new)
+                .stream()
+                .collect(Collectors.groupingBy(EnumItemDTO::getEnumId));
+        Map<Long, EnumInfoDTO> enumInfoMap = new HashMap<>(enumInfoList.size() * 4 / 3 + 1);
+        for (EnumInfo enumInfo : enumInfoList) {
+            EnumInfoDTO enumInfoDTO = CopyUtil.copyBean(enumInfo, EnumInfoDTO::new);
+            enumInfoDTO.setItems(enumItemMap.getOrDefault(enumInfo.getId(), new ArrayList<>(0)));
+            enumInfoMap.put(enumInfo.getId(), enumInfoDTO);
+        }
+        return enumInfoMap;
+    }
+
     public List<EnumItemDTO> listItems(long enumId) {
         Query query = new Query()
                 .eq("enum_id", enumId)
@@ -117,6 +159,7 @@ public class EnumService {
         this.checkItemExist(itemDTO);
         EnumItem enumItem = CopyUtil.copyBean(itemDTO, EnumItem::new);
         enumItemService.save(enumItem);
+        this.incrementModuleVersion(enumItem.getEnumId());
         return enumItem;
     }
 
@@ -125,6 +168,10 @@ public class EnumService {
             return;
         }
         enumItemService.saveBatch(items);
+        items.stream()
+                .map(EnumItem::getEnumId)
+                .distinct()
+                .forEach(this::incrementModuleVersion);
     }
 
     private void checkInfoExist(EnumInfoDTO enumInfoDTO) {
@@ -153,16 +200,34 @@ public class EnumService {
         EnumItem enumItem = enumItemService.getById(itemDTO.getId());
         CopyUtil.copyPropertiesIgnoreNull(itemDTO, enumItem);
         enumItemService.update(enumItem);
+        this.incrementModuleVersion(enumItem.getEnumId());
         return enumItem;
     }
 
     public void deleteEnumInfo(long id) {
         EnumInfo enumInfo = enumInfoService.getById(id);
         enumInfoService.delete(enumInfo);
+        this.incrementModuleVersion(enumInfo);
     }
 
     public void deleteEnumItem(long id) {
         EnumItem item = enumItemService.getById(id);
         enumItemService.getMapper().forceDelete(item);
+        this.incrementModuleVersion(item.getEnumId());
+    }
+
+    /**
+     * 枚举有变化，模块版本号+1，文档详情中有枚举信息
+     */
+    private void incrementModuleVersion(EnumInfo enumInfo) {
+        if (enumInfo != null) {
+            cacheVersionManager.incrementVersion(CacheVersionTypeEnum.MODULE_CONFIG, enumInfo.getModuleId());
+        }
+    }
+
+    private void incrementModuleVersion(Long enumId) {
+        if (enumId != null) {
+            this.incrementModuleVersion(enumInfoService.getById(enumId));
+        }
     }
 }
\ No newline at end of file
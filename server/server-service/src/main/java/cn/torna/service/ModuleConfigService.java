@@ -2,6 +2,7 @@ package cn.torna.service;
 
 import cn.torna.common.bean.Booleans;
 import cn.torna.common.context.ModuleConfigKeys;
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.enums.ModuleConfigTypeEnum;
 import cn.torna.common.enums.ParamStyleEnum;
 import cn.torna.common.enums.StatusEnum;
@@ -19,14 +20,21 @@ import cn.torna.dao.mapper.ConstantInfoMapper;
 import cn.torna.dao.mapper.ModuleConfigMapper;
 import cn.torna.service.dto.DocParamDTO;
 import com.gitee.fastmybatis.core.query.Query;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -34,7 +42,7 @@ import java.util.stream.Collectors;
  * @author tanghc
  */
 @Service
-public class ModuleConfigService extends BaseService<ModuleConfig, ModuleConfigMapper> {
+public class ModuleConfigService extends BaseService<ModuleConfig, ModuleConfigMapper> implements InitializingBean {
 
     @Autowired
     private DocParamService docParamService;
@@ -48,6 +56,17 @@ public class ModuleConfigService extends BaseService<ModuleConfig, ModuleConfigM
     @Autowired
     private ConstantInfoService constantInfoService;
 
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
+    @Value("${torna.module-config-cache.max-size:1000}")
+    private int configCacheMaxSize;
+
+    @Value("${torna.module-config-cache.timeout-seconds:60}")
+    private int configCacheTimeoutSeconds;
+
+    // key: moduleId，模块通用配置快照
+    private Cache<Long, CommonConfigSnapshot> commonConfigCache;
 
     public List<DocParam> listGlobalHeaders(long moduleId) {
         return this.listGlobal(moduleId, ParamStyleEnum.HEADER);
@@ -67,6 +86,23 @@ public class ModuleConfigService extends BaseService<ModuleConfig, ModuleConfigM
             return Collections.emptyList();
         }
         List<ModuleEnvironmentParam> moduleEnvironmentParams = moduleEnvironmentParamService.listByEnvironmentAndStyle(environment.getId(), paramStyleEnum.getStyle());
+        return toGlobalDocParams(moduleEnvironmentParams);
+    }
+
+    /**
+     * 一次查出环境下的全局请求头、全局请求参数、全局返回参数
+     *
+     * @param environmentId 环境id，通常是模块第一个环境
+     * @return key：参数类型，对应ParamStyleEnum.style
+     */
+    public Map<Byte, List<DocParam>> listGlobalByEnvironment(long environmentId) {
+        List<ModuleEnvironmentParam> moduleEnvironmentParams = moduleEnvironmentParamService.listAllByEnvironment(environmentId);
+        return toGlobalDocParams(moduleEnvironmentParams)
+                .stream()
+                .collect(Collectors.groupingBy(DocParam::getStyle));
+    }
+
+    private static List<DocParam> toGlobalDocParams(List<ModuleEnvironmentParam> moduleEnvironmentParams) {
         // id去重，防止跟doc_param表id重复
         long offset = System.currentTimeMillis();
         for (ModuleEnvironmentParam moduleEnvironmentParam : moduleEnvironmentParams) {
@@ -203,6 +239,10 @@ public class ModuleConfigService extends BaseService<ModuleConfig, ModuleConfigM
         DocParam docParam = docParamService.getById(docParamDTO.getId());
         CopyUtil.copyPropertiesIgnoreNull(docParamDTO, docParam);
         docParamService.update(docParam);
+        ModuleConfig moduleConfig = get("extend_id", docParam.getId());
+        if (moduleConfig != null) {
+            incrementVersion(moduleConfig.getModuleId());
+        }
     }
 
     /**
@@ -271,6 +311,32 @@ public class ModuleConfigService extends BaseService<ModuleConfig, ModuleConfigM
                 .eq("module_id", moduleId)
                 .eq("type", typeEnum.getType());
         this.getMapper().deleteByQuery(query);
+        incrementVersion(moduleId);
+    }
+
+    @Override
+    public int save(ModuleConfig entity) {
+        int cnt = super.save(entity);
+        incrementVersion(entity.getModuleId());
+        return cnt;
+    }
+
+    @Override
+    public int update(ModuleConfig entity) {
+        int cnt = super.update(entity);
+        incrementVersion(entity.getModuleId());
+        return cnt;
+    }
+
+    @Override
+    public int delete(ModuleConfig entity) {
+        int cnt = super.delete(entity);
+        incrementVersion(entity.getModuleId());
+        return cnt;
+    }
+
+    private void incrementVersion(Long moduleId) {
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.MODULE_CONFIG, moduleId);
     }
 
     public List<ModuleConfig> listDebugHost(long moduleId) {
@@ -303,8 +369,28 @@ public class ModuleConfigService extends BaseService<ModuleConfig, ModuleConfigM
         return getCommonConfigValue(moduleId, debugHostKey, "");
     }
 
+    /**
+     * 获取模块通用配置，从模块配置快照中获取，配置修改后快照失效
+     *
+     * @param moduleId 模块id
+     * @param key      配置key
+     * @return 返回新的对象，没有返回null
+     */
     public ModuleConfig getCommonConfig(long moduleId, String key) {
-        return getModuleConfig(moduleId, key, ModuleConfigTypeEnum.COMMON, false);
+        ModuleConfig moduleConfig = getCommonConfigSnapshot(moduleId).configMap.get(key);
+        return moduleConfig == null ? null : CopyUtil.copyBean(moduleConfig, ModuleConfig::new);
+    }
+
+    private CommonConfigSnapshot getCommonConfigSnapshot(long moduleId) {
+        long version = cacheVersionManager.getVersion(CacheVersionTypeEnum.MODULE_CONFIG, moduleId);
+        CommonConfigSnapshot snapshot = commonConfigCache.getIfPresent(moduleId);
+        if (snapshot == null || snapshot.version != version) {
+            // 先取版本号再查库，查询期间配置有修改，下次会重新加载
+            List<ModuleConfig> moduleConfigs = listByModuleIdAndType(moduleId, ModuleConfigTypeEnum.COMMON);
+            snapshot = new CommonConfigSnapshot(version, moduleConfigs);
+            commonConfigCache.put(moduleId, snapshot);
+        }
+        return snapshot;
     }
 
     public String getCommonConfigValue(long moduleId, String key, String defaultValue) {
@@ -354,4 +440,32 @@ public class ModuleConfigService extends BaseService<ModuleConfig, ModuleConfigM
         setCommonConfigValue(moduleId, key, baseUrl);
     }
 
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (configCacheMaxSize <= 0 || configCacheTimeoutSeconds <= 0) {
+            throw new IllegalArgumentException("torna.module-config-cache.* must be gt 0");
+        }
+        // 多台服务器部署且关闭了缓存失效消息总线时，其它服务器修改的配置超时后重新加载
+        commonConfigCache = CacheBuilder.newBuilder()
+                .maximumSize(configCacheMaxSize)
+                .expireAfterWrite(configCacheTimeoutSeconds, TimeUnit.SECONDS)
+                .build();
+        cacheVersionManager.addListener(CacheVersionTypeEnum.MODULE_CONFIG, commonConfigCache::invalidate);
+    }
+
+    private static class CommonConfigSnapshot {
+        private final long version;
+        /** key：configKey，缓存的对象不对外暴露 */
+        private final Map<String, ModuleConfig> configMap;
+
+        CommonConfigSnapshot(long version, List<ModuleConfig> moduleConfigs) {
+            this.version = version;
+            this.configMap = new HashMap<>(moduleConfigs.size() * 4 / 3 + 1);
+            for (ModuleConfig moduleConfig : moduleConfigs) {
+                // 同一个key有多条取第一条，同之前按条件查单条
+                configMap.putIfAbsent(moduleConfig.getConfigKey(), moduleConfig);
+            }
+        }
+    }
+
 }
\ No newline at end of file
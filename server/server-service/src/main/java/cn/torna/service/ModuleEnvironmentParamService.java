@@ -1,11 +1,13 @@
 package cn.torna.service;
 
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.support.BaseService;
 import cn.torna.common.util.DataIdUtil;
 import cn.torna.dao.entity.ModuleEnvironmentParam;
 import cn.torna.dao.mapper.ModuleEnvironmentParamMapper;
 import com.gitee.fastmybatis.core.query.Query;
 import com.gitee.fastmybatis.core.query.Sort;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +21,9 @@ import java.util.List;
 @Service
 public class ModuleEnvironmentParamService extends BaseService<ModuleEnvironmentParam, ModuleEnvironmentParamMapper> {
 
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
     public ModuleEnvironmentParam getByDataId(String dataId) {
         return this.get("data_id", dataId);
     }
@@ -49,7 +54,16 @@ public class ModuleEnvironmentParamService extends BaseService<ModuleEnvironment
     @Override
     public int save(ModuleEnvironmentParam entity) {
         initDataId(entity);
-        return super.save(entity);
+        int cnt = super.save(entity);
+        incrementVersion(entity.getEnvironmentId());
+        return cnt;
+    }
+
+    @Override
+    public int update(ModuleEnvironmentParam entity) {
+        int cnt = super.update(entity);
+        incrementVersion(entity.getEnvironmentId());
+        return cnt;
     }
 
     @Override
@@ -57,7 +71,12 @@ public class ModuleEnvironmentParamService extends BaseService<ModuleEnvironment
         for (ModuleEnvironmentParam param : entityList) {
             initDataId(param);
         }
-        return super.saveBatch(entityList);
+        int cnt = super.saveBatch(entityList);
+        entityList.stream()
+                .map(ModuleEnvironmentParam::getEnvironmentId)
+                .distinct()
+                .forEach(this::incrementVersion);
+        return cnt;
     }
 
     public static void initDataId(ModuleEnvironmentParam param) {
@@ -70,13 +89,22 @@ public class ModuleEnvironmentParamService extends BaseService<ModuleEnvironment
         query.eq("environment_id", envId)
                 .ignoreLogicDeleteColumn();
         this.getMapper().deleteByQuery(query);
+        incrementVersion(envId);
     }
 
     @Transactional(rollbackFor = Exception.class)
     public void deleteGlobalParam(long id) {
+        ModuleEnvironmentParam param = getById(id);
         this.getMapper().forceDeleteById(id);
         // delete children
         this.getMapper().forceDeleteByQuery(new Query().eq("parent_id", id));
+        if (param != null) {
+            incrementVersion(param.getEnvironmentId());
+        }
+    }
+
+    private void incrementVersion(Long environmentId) {
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.ENVIRONMENT, environmentId);
     }
 
 }
\ No newline at end of file
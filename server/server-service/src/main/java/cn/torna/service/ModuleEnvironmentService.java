@@ -1,6 +1,7 @@
 package cn.torna.service;
 
 import cn.torna.common.bean.Booleans;
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.enums.ParamStyleEnum;
 import cn.torna.common.support.BaseService;
 import cn.torna.common.util.CopyUtil;
@@ -35,6 +36,9 @@ public class ModuleEnvironmentService extends BaseService<ModuleEnvironment, Mod
     @Autowired
     private ModuleEnvironmentParamService moduleEnvironmentParamService;
 
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
 
     public ModuleEnvironment getFirst(long moduleId) {
         Query query = new Query()
@@ -68,6 +72,27 @@ public class ModuleEnvironmentService extends BaseService<ModuleEnvironment, Mod
         return moduleEnvironment;
     }
 
+    @Override
+    public int save(ModuleEnvironment entity) {
+        int cnt = super.save(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.ENVIRONMENT, entity.getId());
+        return cnt;
+    }
+
+    @Override
+    public int update(ModuleEnvironment entity) {
+        int cnt = super.update(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.ENVIRONMENT, entity.getId());
+        return cnt;
+    }
+
+    @Override
+    public int delete(ModuleEnvironment entity) {
+        int cnt = super.delete(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.ENVIRONMENT, entity.getId());
+        return cnt;
+    }
+
     public ModuleEnvironment getByModuleIdAndName(long moduleId, String name) {
         Query query = new Query()
                 .eq("module_id", moduleId)
@@ -2,8 +2,10 @@ package cn.torna.service;
 
 import cn.torna.common.bean.Booleans;
 import cn.torna.common.bean.User;
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.enums.ModuleTypeEnum;
 import cn.torna.common.support.BaseService;
+import cn.torna.common.util.CopyUtil;
 import cn.torna.common.util.GenerateUtil;
 import cn.torna.dao.entity.Module;
 import cn.torna.dao.mapper.ModuleMapper;
@@ -11,16 +13,44 @@ import cn.torna.service.dto.ImportPostmanDTO;
 import cn.torna.service.dto.ImportSwaggerDTO;
 import cn.torna.service.dto.ImportSwaggerV2DTO;
 import com.gitee.fastmybatis.core.query.Query;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author tanghc
  */
 @Service
-public class ModuleService extends BaseService<Module, ModuleMapper> {
+public class ModuleService extends BaseService<Module, ModuleMapper> implements InitializingBean {
+
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
+    @Value("${torna.module-token-cache.max-size:10000}")
+    private int tokenCacheMaxSize;
+
+    @Value("${torna.module-token-cache.timeout-minutes:10}")
+    private int tokenCacheTimeoutMinutes;
+
+    @Value("${torna.module-token-cache.invalid-timeout-seconds:60}")
+    private int invalidTokenTimeoutSeconds;
+
+    // key: token
+    private Cache<String, Module> tokenCache;
+
+    /** 不存在的token，防止用无效token不停请求数据库 */
+    private Cache<String, Boolean> invalidTokenCache;
+
+    /** 模块缓存失效次数，用来判断查询数据库期间是否有模块修改 */
+    private final AtomicLong tokenGeneration = new AtomicLong();
 
     public List<Module> listProjectModules(long projectId) {
         return list("project_id", projectId);
@@ -135,9 +165,32 @@ public class ModuleService extends BaseService<Module, ModuleMapper> {
         return module;
     }
 
+    /**
+     * 根据token查询模块，结果会缓存，模块修改、删除后缓存失效
+     * @param token token
+     * @return 返回模块，不存在返回null
+     */
     public Module getByToken(String token) {
         Assert.notNull(token, () -> "token不能为null");
-        return this.get("token", token);
+        Module module = tokenCache.getIfPresent(token);
+        if (module == null) {
+            if (invalidTokenCache.getIfPresent(token) != null) {
+                return null;
+            }
+            long generation = tokenGeneration.get();
+            module = this.get("token", token);
+            if (module == null) {
+                invalidTokenCache.put(token, Boolean.TRUE);
+                return null;
+            }
+            tokenCache.put(token, module);
+            // 查询期间模块有修改（如刷新token），查到的可能是旧数据，不缓存
+            if (tokenGeneration.get() != generation) {
+                tokenCache.invalidate(token);
+            }
+        }
+        // 缓存的对象不对外暴露
+        return CopyUtil.copyBean(module, Module::new);
     }
 
     public static String createToken() {
@@ -157,4 +210,43 @@ public class ModuleService extends BaseService<Module, ModuleMapper> {
         this.delete(module);
     }
 
+    /**
+     * 模块修改、删除后（刷新token）清除该模块的缓存
+     * @param moduleId 模块id
+     */
+    private void invalidateToken(long moduleId) {
+        tokenGeneration.incrementAndGet();
+        tokenCache.asMap().values().removeIf(module -> module.getId() == moduleId);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (tokenCacheMaxSize <= 0 || tokenCacheTimeoutMinutes <= 0 || invalidTokenTimeoutSeconds <= 0) {
+            throw new IllegalArgumentException("torna.module-token-cache.* must be gt 0");
+        }
+        tokenCache = CacheBuilder.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfterWrite(tokenCacheTimeoutMinutes, TimeUnit.MINUTES)
+                .build();
+        invalidTokenCache = CacheBuilder.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfterWrite(invalidTokenTimeoutSeconds, TimeUnit.SECONDS)
+                .build();
+        cacheVersionManager.addListener(CacheVersionTypeEnum.MODULE_CONFIG, this::invalidateToken);
+    }
+
+    @Override
+    public int update(Module entity) {
+        int cnt = super.update(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.MODULE_CONFIG, entity.getId());
+        return cnt;
+    }
+
+    @Override
+    public int delete(Module entity) {
+        int cnt = super.delete(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.MODULE_CONFIG, entity.getId());
+        return cnt;
+    }
+
 }
\ No newline at end of file
@@ -2,9 +2,25 @@ package cn.torna.service;
 
 import cn.torna.dao.entity.Module;
 import cn.torna.dao.entity.ModuleSwaggerConfig;
+import cn.torna.dao.entity.ModuleSwaggerContent;
+import cn.torna.dao.mapper.ModuleSwaggerConfigMapper;
+import cn.torna.dao.mapper.ModuleSwaggerContentMapper;
+import cn.torna.common.util.GzipUtil;
 import cn.torna.service.dto.ImportSwaggerV2DTO;
+import com.gitee.fastmybatis.core.query.Query;
 import com.gitee.fastmybatis.core.support.IService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * @author tanghc
@@ -12,26 +28,214 @@ import org.springframework.stereotype.Service;
 @Service
 public class ModuleSwaggerConfigService implements IService<ModuleSwaggerConfig, Long> {
 
-    public void create(ImportSwaggerV2DTO importSwaggerV2DTO, String content, Module module) {
+    /** 定时刷新时只需要这些字段，不读取content */
+    private static final List<String> REFRESH_COLUMNS = Arrays.asList("id", "module_id", "gmt_refresh", "gmt_modified");
+
+    /** 保存内容前只查这些字段，不读取旧内容 */
+    private static final List<String> CONTENT_META_COLUMNS = Arrays.asList("id", "content_hash");
+
+    @Autowired
+    private ModuleSwaggerConfigMapper moduleSwaggerConfigMapper;
+
+    @Autowired
+    private ModuleSwaggerContentMapper moduleSwaggerContentMapper;
+
+    /**
+     * 保存swagger配置。
+     * <p>
+     * content_hash、etag、last_modified会清空，文档推送成功后调用{@link #updateImportInfo(Long, String, String, String)}保存，
+     * 推送失败时下次刷新会重新导入。
+     *
+     * @param importSwaggerV2DTO 导入参数
+     * @param content            swagger文档内容
+     * @param module             模块
+     * @return 返回保存后的配置
+     */
+    public ModuleSwaggerConfig create(ImportSwaggerV2DTO importSwaggerV2DTO, String content, Module module) {
         ModuleSwaggerConfig moduleSwaggerConfig = getByModuleId(module.getId());
         if (moduleSwaggerConfig == null) {
             moduleSwaggerConfig = new ModuleSwaggerConfig();
         }
         moduleSwaggerConfig.setModuleId(module.getId());
         moduleSwaggerConfig.setUrl(importSwaggerV2DTO.getUrl());
-        moduleSwaggerConfig.setContent(content);
         moduleSwaggerConfig.setAuthUsername(importSwaggerV2DTO.getAuthUsername());
         moduleSwaggerConfig.setAuthPassword(importSwaggerV2DTO.getAuthPassword());
+        moduleSwaggerConfig.setContentHash("");
+        moduleSwaggerConfig.setEtag("");
+        moduleSwaggerConfig.setLastModified("");
+        moduleSwaggerConfig.setGmtRefresh(LocalDateTime.now());
         if (moduleSwaggerConfig.getId() == null) {
             this.saveIgnoreNull(moduleSwaggerConfig);
         } else {
             this.updateIgnoreNull(moduleSwaggerConfig);
         }
+        this.saveContent(moduleSwaggerConfig.getId(), content);
+        return moduleSwaggerConfig;
+    }
+
+    /**
+     * 文档推送成功后保存内容md5值和下载时返回的ETag、Last-Modified，之后刷新时内容没变化不再导入
+     *
+     * @param id           id
+     * @param contentHash  导入内容的md5值
+     * @param etag         下载时返回的ETag，没有为null
+     * @param lastModified 下载时返回的Last-Modified，没有为null
+     */
+    public void updateImportInfo(Long id, String contentHash, String etag, String lastModified) {
+        Map<String, Object> set = new HashMap<>(8);
+        set.put("content_hash", contentHash);
+        set.put("etag", Optional.ofNullable(etag).orElse(""));
+        set.put("last_modified", Optional.ofNullable(lastModified).orElse(""));
+        this.getMapper().updateByMap(set, new Query().eq("id", id));
+    }
 
+    /**
+     * 修改swagger文档内容，只保存内容，不修改content_hash，同步时才会导入
+     *
+     * @param moduleSwaggerConfig 配置
+     * @param content             swagger文档内容
+     */
+    public void updateContent(ModuleSwaggerConfig moduleSwaggerConfig, String content) {
+        this.saveContent(moduleSwaggerConfig.getId(), content);
+    }
+
+    /**
+     * 获取swagger文档内容
+     *
+     * @param moduleSwaggerConfig 配置
+     * @return 返回文档内容，没有返回空字符串
+     */
+    public String getContent(ModuleSwaggerConfig moduleSwaggerConfig) {
+        Long id = moduleSwaggerConfig.getId();
+        ModuleSwaggerContent moduleSwaggerContent = moduleSwaggerContentMapper.getByColumn("module_swagger_config_id", id);
+        if (moduleSwaggerContent != null && moduleSwaggerContent.getData() != null) {
+            return GzipUtil.decompress(moduleSwaggerContent.getData());
+        }
+        // 1.23.0之前的数据存放在module_swagger_config.content，升级时没有迁移成功的从这里读取
+        String content = moduleSwaggerConfigMapper.getLegacyContent(id);
+        return Optional.ofNullable(content).orElse("");
+    }
+
+    /**
+     * 将1.23.0之前存放在module_swagger_config.content中的内容压缩后移到module_swagger_content
+     *
+     * @return 返回处理的配置数量
+     */
+    public int migrateLegacyContent() {
+        List<Long> ids = moduleSwaggerConfigMapper.listLegacyContentIds();
+        for (Long id : ids) {
+            Query query = new Query().eq("module_swagger_config_id", id);
+            if (moduleSwaggerContentMapper.listBySpecifiedColumns(CONTENT_META_COLUMNS, query).isEmpty()) {
+                // 一条一条读取，内容可能比较大
+                this.saveContent(id, moduleSwaggerConfigMapper.getLegacyContent(id));
+            } else {
+                // 已经有新保存的内容，旧内容直接清除
+                this.clearLegacyContent(id);
+            }
+        }
+        return ids.size();
+    }
+
+    /**
+     * 压缩保存swagger文档内容，和已保存的内容一样时不再写入
+     *
+     * @param moduleSwaggerConfigId module_swagger_config.id
+     * @param content               swagger文档内容
+     */
+    private void saveContent(Long moduleSwaggerConfigId, String content) {
+        String text = Optional.ofNullable(content).orElse("");
+        String contentHash = getContentHash(text);
+        Query query = new Query().eq("module_swagger_config_id", moduleSwaggerConfigId);
+        List<ModuleSwaggerContent> saved = moduleSwaggerContentMapper.listBySpecifiedColumns(CONTENT_META_COLUMNS, query);
+        Long id = saved.isEmpty() ? null : saved.get(0).getId();
+        if (id != null && Objects.equals(contentHash, saved.get(0).getContentHash())) {
+            return;
+        }
+        ModuleSwaggerContent moduleSwaggerContent = new ModuleSwaggerContent();
+        moduleSwaggerContent.setModuleSwaggerConfigId(moduleSwaggerConfigId);
+        moduleSwaggerContent.setContentHash(contentHash);
+        moduleSwaggerContent.setContentSize(text.getBytes(StandardCharsets.UTF_8).length);
+        moduleSwaggerContent.setData(GzipUtil.compress(text));
+        if (id == null) {
+            moduleSwaggerContentMapper.saveIgnoreNull(moduleSwaggerContent);
+            this.clearLegacyContent(moduleSwaggerConfigId);
+        } else {
+            moduleSwaggerContent.setId(id);
+            moduleSwaggerContentMapper.updateIgnoreNull(moduleSwaggerContent);
+        }
+    }
+
+    /**
+     * 清除旧版本存放在module_swagger_config.content中的内容
+     */
+    private void clearLegacyContent(Long moduleSwaggerConfigId) {
+        Map<String, Object> set = new HashMap<>(4);
+        set.put("content", null);
+        this.getMapper().updateByMap(set, new Query().eq("id", moduleSwaggerConfigId).notNull("content"));
+    }
+
+    /**
+     * 文档没有变化时记录刷新时间
+     *
+     * @param id           id
+     * @param etag         下载时返回的ETag，为null不修改
+     * @param lastModified 下载时返回的Last-Modified，为null不修改
+     */
+    public void updateRefreshInfo(Long id, String etag, String lastModified) {
+        Map<String, Object> set = new HashMap<>(8);
+        set.put("gmt_refresh", LocalDateTime.now());
+        if (etag != null) {
+            set.put("etag", etag);
+        }
+        if (lastModified != null) {
+            set.put("last_modified", lastModified);
+        }
+        this.getMapper().updateByMap(set, new Query().eq("id", id));
+    }
+
+    /**
+     * 获取需要定时刷新的配置，只返回id、module_id、gmt_refresh、gmt_modified
+     *
+     * @return 返回通过url导入的配置
+     */
+    public List<ModuleSwaggerConfig> listRefreshConfigs() {
+        Query query = new Query()
+                .notEq("url", "");
+        return this.getMapper().listBySpecifiedColumns(REFRESH_COLUMNS, query);
+    }
+
+    /**
+     * 抢占刷新，多台服务器同时刷新同一个配置时只有一台能成功
+     *
+     * @param moduleSwaggerConfig listRefreshConfigs()返回的配置
+     * @return 抢占成功返回true
+     */
+    public boolean tryRefresh(ModuleSwaggerConfig moduleSwaggerConfig) {
+        Map<String, Object> set = new HashMap<>(4);
+        set.put("gmt_refresh", LocalDateTime.now());
+        Query query = new Query()
+                .eq("id", moduleSwaggerConfig.getId());
+        LocalDateTime gmtRefresh = moduleSwaggerConfig.getGmtRefresh();
+        if (gmtRefresh == null) {
+            query.isNull("gmt_refresh");
+        } else {
+            query.eq("gmt_refresh", gmtRefresh);
+        }
+        return this.getMapper().updateByMap(set, query) > 0;
     }
 
     public ModuleSwaggerConfig getByModuleId(Long moduleId) {
         return getByColumn("module_id", moduleId);
     }
 
-}
\ No newline at end of file
+    /**
+     * 计算swagger文档内容的md5值
+     *
+     * @param content 文档内容
+     * @return 返回md5值
+     */
+    public static String getContentHash(String content) {
+        return DigestUtils.md5DigestAsHex(Optional.ofNullable(content).orElse("").getBytes(StandardCharsets.UTF_8));
+    }
+
+}
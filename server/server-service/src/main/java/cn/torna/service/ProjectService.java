@@ -2,6 +2,7 @@ package cn.torna.service;
 
 import cn.torna.common.bean.Booleans;
 import cn.torna.common.bean.User;
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.enums.RoleEnum;
 import cn.torna.common.support.BaseService;
 import cn.torna.common.util.CopyUtil;
@@ -37,6 +38,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -47,7 +49,7 @@ import java.util.stream.Collectors;
 public class ProjectService extends BaseService<Project, ProjectMapper> implements InitializingBean {
 
     // key: projectId, value:spaceId
-    private static final Map<Long, Long> projectIdSpaceIdMap = new HashMap<>(8);
+    private static final Map<Long, Long> projectIdSpaceIdMap = new ConcurrentHashMap<>(8);
 
     @Autowired
     private ProjectUserMapper projectUserMapper;
@@ -58,6 +60,9 @@ public class ProjectService extends BaseService<Project, ProjectMapper> implemen
     @Autowired
     private SpaceService spaceService;
 
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
     /**
      * 创建项目
      * @param projectAddDTO 项目信息
@@ -345,5 +350,21 @@ public class ProjectService extends BaseService<Project, ProjectMapper> implemen
                 .stream()
                 .collect(Collectors.toMap(Project::getId, Project::getSpaceId));
         projectIdSpaceIdMap.putAll(map);
+        // 项目修改、删除后重新加载
+        cacheVersionManager.addListener(CacheVersionTypeEnum.PROJECT, projectIdSpaceIdMap::remove);
+    }
+
+    @Override
+    public int update(Project entity) {
+        int cnt = super.update(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.PROJECT, entity.getId());
+        return cnt;
+    }
+
+    @Override
+    public int delete(Project entity) {
+        int cnt = super.delete(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.PROJECT, entity.getId());
+        return cnt;
     }
 }
\ No newline at end of file
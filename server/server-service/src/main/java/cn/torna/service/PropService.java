@@ -9,6 +9,7 @@ import com.gitee.fastmybatis.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +58,24 @@ public class PropService extends BaseService<Prop, PropMapper> {
         return getProps(docId, PropTypeEnum.DOC_INFO_PROP.getType());
     }
 
+    /**
+     * 批量查询文档属性
+     *
+     * @param docIds 文档id
+     * @return key：文档id，value：属性
+     */
+    public Map<Long, Map<String, String>> listDocProps(Collection<Long> docIds) {
+        if (CollectionUtils.isEmpty(docIds)) {
+            return Collections.emptyMap();
+        }
+        Query query = new Query()
+                .in("ref_id", docIds)
+                .eq("type", PropTypeEnum.DOC_INFO_PROP.getType());
+        return this.list(query)
+                .stream()
+                .collect(Collectors.groupingBy(Prop::getRefId, Collectors.toMap(Prop::getName, Prop::getVal)));
+    }
+
     public Map<String, String> getProps(Long refId, byte type) {
         return this.listProps(refId, type)
                 .stream()
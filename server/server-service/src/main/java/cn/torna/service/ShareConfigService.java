@@ -2,6 +2,8 @@ package cn.torna.service;
 
 import cn.torna.common.bean.Booleans;
 import cn.torna.common.bean.User;
+import cn.torna.common.bean.EnvironmentKeys;
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.enums.ShareConfigTypeEnum;
 import cn.torna.common.enums.StatusEnum;
 import cn.torna.common.exception.BizException;
@@ -47,6 +49,50 @@ public class ShareConfigService extends BaseService<ShareConfig, ShareConfigMapp
     private ModuleEnvironmentService moduleEnvironmentService;
     @Autowired
     private DocInfoService docInfoService;
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
+    @Override
+    public int update(ShareConfig entity) {
+        int cnt = super.update(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.SHARE_CONFIG, entity.getId());
+        return cnt;
+    }
+
+    @Override
+    public int delete(ShareConfig entity) {
+        int cnt = super.delete(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.SHARE_CONFIG, entity.getId());
+        return cnt;
+    }
+
+    /**
+     * 返回分享菜单的ETag，分享配置或模块下的文档有变化时ETag会变
+     * @param shareConfig 分享配置
+     * @return 返回ETag
+     */
+    public String getShareMenuETag(ShareConfig shareConfig) {
+        String content = cacheVersionManager.getEpoch()
+                + ":" + shareConfig.getId()
+                + ":" + shareConfig.getStatus()
+                + ":" + cacheVersionManager.getVersion(CacheVersionTypeEnum.SHARE_CONFIG, shareConfig.getId())
+                + ":" + cacheVersionManager.getVersion(CacheVersionTypeEnum.MODULE_DOC, shareConfig.getModuleId())
+                + ":" + EnvironmentKeys.TORNA_DOC_SORT_TYPE.getValue();
+        return CacheVersionManager.buildETag(content);
+    }
+
+    /**
+     * 返回分享文档详情的ETag，在文档详情ETag基础上加上分享配置的版本
+     * @param docInfo 文档
+     * @param shareConfigId 分享配置id
+     * @return 返回ETag
+     */
+    public String getShareDocDetailETag(DocInfo docInfo, long shareConfigId) {
+        String content = docInfoService.getDocDetailETag(docInfo)
+                + ":" + shareConfigId
+                + ":" + cacheVersionManager.getVersion(CacheVersionTypeEnum.SHARE_CONFIG, shareConfigId);
+        return CacheVersionManager.buildETag(content);
+    }
 
     @Transactional(rollbackFor = Exception.class)
     public void add(ShareConfigDTO shareConfigDTO, User user) {
@@ -1,38 +1,45 @@
 package cn.torna.service;
 
+import cn.torna.common.bean.ConfigSnapshot;
+import cn.torna.common.bean.Configs;
 import cn.torna.common.bean.EnvironmentContext;
 import cn.torna.common.bean.EnvironmentKeys;
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.interfaces.IConfig;
 import cn.torna.common.support.BaseService;
 import cn.torna.common.util.CopyUtil;
 import cn.torna.dao.entity.SystemConfig;
 import cn.torna.dao.mapper.SystemConfigMapper;
 import cn.torna.service.dto.SystemConfigDTO;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
 /**
+ * 系统配置。
+ * <p>
+ * 启动时一次加载全部配置生成快照{@link ConfigSnapshot}，读取配置不查数据库。
+ * 配置修改后（包括其它服务器修改）重新加载生成新的快照整体替换。
+ *
  * @author tanghc
  */
 @Service
 public class SystemConfigService extends BaseService<SystemConfig, SystemConfigMapper> implements IConfig, InitializingBean {
 
-    // key: configKey, value: configValue
-    private final LoadingCache<String, Optional<String>> configCache = CacheBuilder.newBuilder()
-            .expireAfterAccess(15, TimeUnit.MINUTES)
-            .build(new CacheLoader<String, Optional<String>>() {
-                @Override
-                public Optional<String> load(String key) throws Exception {
-                    return Optional.ofNullable(getConfigValue(key, null));
-                }
-            });
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
+    @Autowired
+    private Environment environment;
+
+    private volatile ConfigSnapshot snapshot;
 
     public void setConfig(String key, String value) {
         setConfig(key, value, "");
@@ -57,7 +64,8 @@ public class SystemConfigService extends BaseService<SystemConfig, SystemConfigM
             CopyUtil.copyPropertiesIgnoreNull(systemConfigDTO, systemConfig);
             this.update(systemConfig);
         }
-        configCache.invalidate(systemConfigDTO.getConfigKey());
+        // 事务提交后重新加载
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.SYSTEM_CONFIG, systemConfig.getId());
     }
 
     /**
@@ -92,18 +100,33 @@ public class SystemConfigService extends BaseService<SystemConfig, SystemConfigM
 
     @Override
     public String getConfig(String key) {
-        return configCache.getUnchecked(key).orElse(null);
+        return snapshot.getValue(key);
     }
 
     @Override
     public String getConfig(String key, String defaultValue) {
-        return configCache.getUnchecked(key).orElse(defaultValue);
+        String value = snapshot.getValue(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 重新加载全部配置，生成新的快照
+     */
+    public void reload() {
+        List<SystemConfig> systemConfigs = this.listAll();
+        Map<String, String> configs = new HashMap<>(systemConfigs.size() * 4 / 3 + 1);
+        for (SystemConfig systemConfig : systemConfigs) {
+            configs.put(systemConfig.getConfigKey(), systemConfig.getConfigValue());
+        }
+        ConfigSnapshot configSnapshot = new ConfigSnapshot(configs, key -> environment.getProperty(key));
+        this.snapshot = configSnapshot;
+        Configs.setSnapshot(configSnapshot);
     }
 
     @Override
     public void afterPropertiesSet() throws Exception {
-        this.listAll().forEach(systemConfig -> {
-            configCache.put(systemConfig.getConfigKey(), Optional.of(systemConfig.getConfigValue()));
-        });
+        reload();
+        // 本机或其它服务器修改了配置，不知道是哪个key，全部重新加载
+        cacheVersionManager.addListener(CacheVersionTypeEnum.SYSTEM_CONFIG, id -> reload());
     }
 }
\ No newline at end of file
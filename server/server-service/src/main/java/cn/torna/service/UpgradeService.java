@@ -40,7 +40,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UpgradeService {
 
-    private static final int VERSION = 12000;
+    private static final int VERSION = 12400;
 
     private static final String TORNA_VERSION_KEY = "torna.version";
 
@@ -59,6 +59,9 @@ public class UpgradeService {
     @Autowired
     private DocInfoService docInfoService;
 
+    @Autowired
+    private ModuleSwaggerConfigService moduleSwaggerConfigService;
+
     @Resource
     private ConstantInfoMapper errorCodeInfoMapper;
 
@@ -110,6 +113,59 @@ public class UpgradeService {
         v1_16_0(oldVersion);
         v1_18_0(oldVersion);
         v1_20_0(oldVersion);
+        v1_21_0(oldVersion);
+        v1_22_0(oldVersion);
+        v1_23_0(oldVersion);
+        v1_24_0(oldVersion);
+    }
+
+    private void v1_24_0(int oldVersion) {
+        if (oldVersion < 12400) {
+            log.info("Upgrade version to 1.24.0");
+            addColumn("doc_info",
+                    "push_md5",
+                    "ALTER TABLE `doc_info` ADD COLUMN `push_md5` varchar(32) NOT NULL DEFAULT '' COMMENT '推送内容的md5值，增量推送使用' AFTER `md5`");
+            log.info("Upgrade 1.24.0 finished.");
+        }
+    }
+
+    private void v1_23_0(int oldVersion) {
+        if (oldVersion < 12300) {
+            log.info("Upgrade version to 1.23.0");
+            createTable("module_swagger_content", "upgrade/1.23.0_ddl.txt");
+            // 内容移到module_swagger_content，新数据不再写入content字段
+            runSql("ALTER TABLE `module_swagger_config` MODIFY COLUMN `content` longtext CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL COMMENT 'swagger内容，1.23.0开始存放在module_swagger_content'");
+            int count = moduleSwaggerConfigService.migrateLegacyContent();
+            log.info("Move swagger content to module_swagger_content, count:{}", count);
+            log.info("Upgrade 1.23.0 finished.");
+        }
+    }
+
+    private void v1_22_0(int oldVersion) {
+        if (oldVersion < 12200) {
+            log.info("Upgrade version to 1.22.0");
+            addColumn("module_swagger_config",
+                    "content_hash",
+                    "ALTER TABLE `module_swagger_config` ADD COLUMN `content_hash` varchar(32) NOT NULL DEFAULT '' COMMENT 'swagger内容的md5值' AFTER `content`");
+            addColumn("module_swagger_config",
+                    "etag",
+                    "ALTER TABLE `module_swagger_config` ADD COLUMN `etag` varchar(256) NOT NULL DEFAULT '' COMMENT '上次下载返回的ETag' AFTER `auth_password`");
+            addColumn("module_swagger_config",
+                    "last_modified",
+                    "ALTER TABLE `module_swagger_config` ADD COLUMN `last_modified` varchar(64) NOT NULL DEFAULT '' COMMENT '上次下载返回的Last-Modified' AFTER `etag`");
+            addColumn("module_swagger_config",
+                    "gmt_refresh",
+                    "ALTER TABLE `module_swagger_config` ADD COLUMN `gmt_refresh` datetime DEFAULT NULL COMMENT '上次刷新时间' AFTER `last_modified`");
+            log.info("Upgrade 1.22.0 finished.");
+        }
+    }
+
+    private void v1_21_0(int oldVersion) {
+        if (oldVersion < 12100) {
+            log.info("Upgrade version to 1.21.0");
+            createTable("cache_version", "upgrade/1.21.0_ddl.txt");
+            log.info("Upgrade 1.21.0 finished.");
+        }
     }
 
     private void v1_20_0(int oldVersion) {
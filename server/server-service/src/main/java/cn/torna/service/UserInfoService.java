@@ -1,9 +1,11 @@
 package cn.torna.service;
 
 import cn.torna.common.bean.Booleans;
+import cn.torna.common.bean.Configs;
 import cn.torna.common.bean.EnvironmentKeys;
 import cn.torna.common.bean.LoginUser;
 import cn.torna.common.bean.UserCacheManager;
+import cn.torna.common.enums.CacheVersionTypeEnum;
 import cn.torna.common.enums.UserInfoSourceEnum;
 import cn.torna.common.enums.UserStatusEnum;
 import cn.torna.common.exception.BizException;
@@ -50,6 +52,8 @@ import java.util.function.Function;
 @Slf4j
 public class UserInfoService extends BaseService<UserInfo, UserInfoMapper> {
 
+    private static final String JWT_SECRET_KEY = "torna.jwt.secret";
+
     @Autowired
     private UserCacheManager userCacheManager;
 
@@ -71,6 +75,9 @@ public class UserInfoService extends BaseService<UserInfo, UserInfoMapper> {
     @Autowired
     private UserDingtalkInfoService userDingtalkInfoService;
 
+    @Autowired
+    private CacheVersionManager cacheVersionManager;
+
     /**
      * 是否是第三方用户
      * @param userInfo user
@@ -274,7 +281,9 @@ public class UserInfoService extends BaseService<UserInfo, UserInfoMapper> {
         String id = IdUtil.encode(userId);
         Map<String, String> data = new HashMap<>(4);
         data.put("id", String.valueOf(userId));
-        String jwt = JwtUtil.createJwt(data, jwtTimeoutDays, jwtSecret);
+        // 与UserContext校验时一样从系统配置中读取
+        String secret = Configs.getValue(JWT_SECRET_KEY, jwtSecret);
+        String jwt = JwtUtil.createJwt(data, jwtTimeoutDays, secret);
         return id + ":" + jwt;
     }
 
@@ -320,8 +329,32 @@ public class UserInfoService extends BaseService<UserInfo, UserInfoMapper> {
         this.update(userInfo);
     }
 
+    /**
+     * 物理删除用户
+     *
+     * @param id id
+     */
+    public void forceDeleteUser(Long id) {
+        this.getMapper().forceDeleteById(id);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.USER, id);
+    }
+
     public List<UserInfo> listSuperAdmin() {
         return this.list("is_super_admin", Booleans.TRUE);
     }
 
+    @Override
+    public int update(UserInfo entity) {
+        int cnt = super.update(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.USER, entity.getId());
+        return cnt;
+    }
+
+    @Override
+    public int delete(UserInfo entity) {
+        int cnt = super.delete(entity);
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.USER, entity.getId());
+        return cnt;
+    }
+
 }
\ No newline at end of file
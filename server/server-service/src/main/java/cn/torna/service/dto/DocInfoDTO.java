@@ -117,6 +117,10 @@ public class DocInfoDTO implements DocInfoDataId {
     @JSONField(serialize = false)
     private String md5;
 
+    /** 推送内容的md5值，增量推送时判断文档是否有变化 */
+    @JSONField(serialize = false)
+    private String pushMd5;
+
     /** 空间id */
     @JSONField(serializeUsing = IdCodec.class, deserializeUsing = IdCodec.class)
     private Long spaceId;
@@ -7,7 +7,10 @@ import lombok.Data;
  */
 @Data
 public class DocMeta {
+    private Long id;
     private String dataId;
     private String md5;
+    private String pushMd5;
     private Byte isLocked;
+    private Byte createMode;
 }
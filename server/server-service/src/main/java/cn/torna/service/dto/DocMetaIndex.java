@@ -0,0 +1,103 @@
+package cn.torna.service.dto;
+
+import cn.torna.common.bean.Booleans;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 文档元信息索引，key：dataId。推送时创建一次，之后只读
+ *
+ * @author tanghc
+ */
+public final class DocMetaIndex {
+
+    private final List<DocMeta> docMetas;
+    private final Map<String, DocMeta> dataIdMap;
+
+    private DocMetaIndex(List<DocMeta> docMetas, Map<String, DocMeta> dataIdMap) {
+        this.docMetas = docMetas;
+        this.dataIdMap = dataIdMap;
+    }
+
+    public static DocMetaIndex of(List<DocMeta> docMetas) {
+        if (docMetas == null || docMetas.isEmpty()) {
+            return new DocMetaIndex(Collections.emptyList(), Collections.emptyMap());
+        }
+        Map<String, DocMeta> dataIdMap = new HashMap<>(docMetas.size() * 4 / 3 + 1);
+        for (DocMeta docMeta : docMetas) {
+            // dataId重复时以第一个为准，与遍历查找的结果保持一致
+            dataIdMap.putIfAbsent(docMeta.getDataId(), docMeta);
+        }
+        return new DocMetaIndex(Collections.unmodifiableList(docMetas), Collections.unmodifiableMap(dataIdMap));
+    }
+
+    public DocMeta get(String dataId) {
+        return dataIdMap.get(dataId);
+    }
+
+    /**
+     * 文档是否被锁住
+     * @param dataId 文档唯一id
+     * @return 被锁住返回true
+     */
+    public boolean isLocked(String dataId) {
+        DocMeta docMeta = dataIdMap.get(dataId);
+        return docMeta != null && Booleans.isTrue(docMeta.getIsLocked());
+    }
+
+    /**
+     * 文档内容是否有变化，之前没有md5的不校验
+     * @param dataId 文档唯一id
+     * @param newMd5 新文档md5
+     * @return 有变化返回true
+     */
+    public boolean isContentChanged(String dataId, String newMd5) {
+        DocMeta docMeta = dataIdMap.get(dataId);
+        if (docMeta == null || StringUtils.isEmpty(docMeta.getMd5())) {
+            return false;
+        }
+        return !Objects.equals(newMd5, docMeta.getMd5());
+    }
+
+    /**
+     * 文档内容是否没有变化
+     * @param dataId 文档唯一id
+     * @param newMd5 新文档md5
+     * @return 存在相同dataId且md5一致返回true
+     */
+    public boolean isContentSame(String dataId, String newMd5) {
+        DocMeta docMeta = dataIdMap.get(dataId);
+        if (docMeta == null || StringUtils.isEmpty(newMd5)) {
+            return false;
+        }
+        return Objects.equals(newMd5, docMeta.getMd5());
+    }
+
+    /**
+     * 推送内容是否没有变化
+     * @param dataId 文档唯一id
+     * @param newPushMd5 本次推送内容的md5，见DocInfoService.getPushMd5()
+     * @return 存在相同dataId且推送内容md5一致返回true
+     */
+    public boolean isPushContentSame(String dataId, String newPushMd5) {
+        DocMeta docMeta = dataIdMap.get(dataId);
+        if (docMeta == null || StringUtils.isEmpty(newPushMd5)) {
+            return false;
+        }
+        return Objects.equals(newPushMd5, docMeta.getPushMd5());
+    }
+
+    public Collection<DocMeta> getDocMetas() {
+        return docMetas;
+    }
+
+    public int size() {
+        return docMetas.size();
+    }
+}
@@ -0,0 +1,19 @@
+package cn.torna.service.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 模块下的文档菜单发生变化（新增、修改、删除文档或文件夹）
+ * @author tanghc
+ */
+public class DocMenuChangeEvent extends ApplicationEvent {
+
+    public DocMenuChangeEvent(Long moduleId) {
+        super(moduleId);
+    }
+
+    public Long getModuleId() {
+        return (Long) getSource();
+    }
+
+}
@@ -0,0 +1,99 @@
+package cn.torna.service;
+
+import cn.torna.common.bean.CacheInvalidationBus;
+import cn.torna.common.enums.CacheVersionTypeEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * 版本号在事务结束后才更新，同一个事务中同一个id只更新一次
+ *
+ * @author tanghc
+ */
+public class CacheVersionManagerTest {
+
+    @Test
+    public void testIncrementVersion() {
+        CacheVersionManager cacheVersionManager = new CacheVersionManager();
+        AtomicInteger notifyCount = new AtomicInteger();
+        cacheVersionManager.addListener(CacheVersionTypeEnum.MODULE_DOC, id -> notifyCount.incrementAndGet());
+
+        cacheVersionManager.incrementVersion(CacheVersionTypeEnum.MODULE_DOC, 1L);
+        Assertions.assertEquals(1, cacheVersionManager.getVersion(CacheVersionTypeEnum.MODULE_DOC, 1L));
+        Assertions.assertEquals(0, cacheVersionManager.getVersion(CacheVersionTypeEnum.MODULE_CONFIG, 1L));
+        Assertions.assertEquals(1, notifyCount.get());
+    }
+
+    @Test
+    public void testIncrementVersionInTransaction() {
+        CacheVersionManager cacheVersionManager = new CacheVersionManager();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int i = 0; i < 100; i++) {
+                cacheVersionManager.incrementVersion(CacheVersionTypeEnum.MODULE_DOC, 1L);
+                cacheVersionManager.incrementVersion(CacheVersionTypeEnum.ENVIRONMENT, 2L);
+            }
+            // 事务没结束，版本号不变
+            Assertions.assertEquals(0, cacheVersionManager.getVersion(CacheVersionTypeEnum.MODULE_DOC, 1L));
+            Assertions.assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assertions.assertEquals(1, cacheVersionManager.getVersion(CacheVersionTypeEnum.MODULE_DOC, 1L));
+        Assertions.assertEquals(1, cacheVersionManager.getVersion(CacheVersionTypeEnum.ENVIRONMENT, 2L));
+        Assertions.assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+    }
+
+    /**
+     * 本机的变化发送到其它服务器，其它服务器的变化更新到本机且不再发送
+     */
+    @Test
+    public void testCacheInvalidationBus() throws Exception {
+        MemoryBus bus = new MemoryBus();
+        CacheVersionManager node1 = new CacheVersionManager();
+        node1.setCacheInvalidationBus(bus);
+        node1.afterPropertiesSet();
+
+        AtomicInteger notifyCount = new AtomicInteger();
+        node1.addListener(CacheVersionTypeEnum.USER, id -> notifyCount.incrementAndGet());
+
+        node1.incrementVersion(CacheVersionTypeEnum.USER, 1L);
+        Assertions.assertEquals(1, bus.published.size());
+
+        // 其它服务器修改了用户2
+        bus.receive(CacheVersionTypeEnum.USER, 2L);
+        Assertions.assertEquals(1, node1.getVersion(CacheVersionTypeEnum.USER, 2L));
+        Assertions.assertEquals(2, notifyCount.get());
+        Assertions.assertEquals(1, bus.published.size());
+    }
+
+    private static class MemoryBus implements CacheInvalidationBus {
+        private final List<String> published = new ArrayList<>();
+        private final List<BiConsumer<CacheVersionTypeEnum, Long>> receivers = new ArrayList<>();
+
+        @Override
+        public void publish(CacheVersionTypeEnum type, long id) {
+            published.add(type.getType() + ":" + id);
+        }
+
+        @Override
+        public void subscribe(BiConsumer<CacheVersionTypeEnum, Long> receiver) {
+            receivers.add(receiver);
+        }
+
+        void receive(CacheVersionTypeEnum type, long id) {
+            receivers.forEach(receiver -> receiver.accept(type, id));
+        }
+    }
+
+}
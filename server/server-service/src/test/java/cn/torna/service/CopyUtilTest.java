@@ -0,0 +1,99 @@
+package cn.torna.service;
+
+import cn.torna.common.util.CopyUtil;
+import cn.torna.dao.entity.DocParam;
+import cn.torna.service.dto.DocInfoDTO;
+import cn.torna.service.dto.DocParamDTO;
+import com.alibaba.fastjson.JSON;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 属性拷贝：缓存的拷贝器与BeanUtils结果一致
+ *
+ * @author tanghc
+ */
+public class CopyUtilTest {
+
+    @Test
+    public void testCopyBean() {
+        DocParam docParam = buildDocParam(1);
+        DocParamDTO expect = new DocParamDTO();
+        BeanUtils.copyProperties(docParam, expect);
+        DocParamDTO actual = CopyUtil.copyBean(docParam, DocParamDTO::new);
+        Assertions.assertEquals(expect, actual);
+        Assertions.assertEquals(docParam.getGmtCreate(), actual.getGmtCreate());
+    }
+
+    @Test
+    public void testGenericList() {
+        // List<DocParamDTO>与List<DocParamDTO>可以拷贝
+        DocInfoDTO from = new DocInfoDTO();
+        from.setName("a");
+        from.setRequestParams(Collections.singletonList(new DocParamDTO()));
+        DocInfoDTO to = CopyUtil.copyBean(from, DocInfoDTO::new);
+        Assertions.assertEquals(JSON.toJSONString(from), JSON.toJSONString(to));
+    }
+
+    @Test
+    public void testCopyPropertiesIgnoreNull() {
+        DocParam from = buildDocParam(1);
+        from.setExample(null);
+        DocParamDTO to = new DocParamDTO();
+        to.setExample("example");
+        to.setName("old");
+        CopyUtil.copyPropertiesIgnoreNull(from, to, "description");
+        Assertions.assertEquals("example", to.getExample());
+        Assertions.assertEquals(from.getName(), to.getName());
+        Assertions.assertNull(to.getDescription());
+    }
+
+    @Test
+    public void testCopyList() {
+        List<DocParam> docParams = buildDocParams(100);
+        List<DocParamDTO> list = CopyUtil.copyList(docParams, DocParamDTO::new);
+        Assertions.assertEquals(docParams.size(), list.size());
+        for (int i = 0; i < docParams.size(); i++) {
+            DocParamDTO expect = new DocParamDTO();
+            BeanUtils.copyProperties(docParams.get(i), expect);
+            Assertions.assertEquals(expect, list.get(i));
+        }
+    }
+
+    private static List<DocParam> buildDocParams(int size) {
+        List<DocParam> docParams = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            docParams.add(buildDocParam(i));
+        }
+        return docParams;
+    }
+
+    private static DocParam buildDocParam(int i) {
+        DocParam docParam = new DocParam();
+        docParam.setId((long) i);
+        docParam.setDataId("data-" + i);
+        docParam.setName("name" + i);
+        docParam.setType("string");
+        docParam.setRequired((byte) 1);
+        docParam.setMaxLength("64");
+        docParam.setExample("example");
+        docParam.setDescription("description");
+        docParam.setDocId(1L);
+        docParam.setParentId(0L);
+        docParam.setStyle((byte) 2);
+        docParam.setCreateMode((byte) 1);
+        docParam.setModifyMode((byte) 1);
+        docParam.setOrderIndex(i);
+        docParam.setIsDeleted((byte) 0);
+        docParam.setGmtCreate(LocalDateTime.now());
+        docParam.setGmtModified(LocalDateTime.now());
+        return docParam;
+    }
+
+}
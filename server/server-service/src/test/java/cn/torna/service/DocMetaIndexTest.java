@@ -0,0 +1,46 @@
+package cn.torna.service;
+
+import cn.torna.common.bean.Booleans;
+import cn.torna.service.dto.DocMeta;
+import cn.torna.service.dto.DocMetaIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 推送前置检查按data_id索引查找
+ *
+ * @author tanghc
+ */
+public class DocMetaIndexTest {
+
+    @Test
+    public void testIndex() {
+        List<DocMeta> docMetas = buildDocMetas(10);
+        docMetas.get(3).setIsLocked(Booleans.TRUE);
+        DocMetaIndex index = DocMetaIndex.of(docMetas);
+        Assertions.assertTrue(index.isLocked("data-3"));
+        Assertions.assertFalse(index.isLocked("data-4"));
+        Assertions.assertFalse(index.isLocked("not-exist"));
+        Assertions.assertTrue(index.isContentSame("data-5", "md5-5"));
+        Assertions.assertFalse(index.isContentSame("data-5", "md5-x"));
+        Assertions.assertTrue(index.isContentChanged("data-5", "md5-x"));
+        Assertions.assertFalse(index.isContentChanged("not-exist", "md5-x"));
+    }
+
+    private static List<DocMeta> buildDocMetas(int size) {
+        List<DocMeta> docMetas = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            DocMeta docMeta = new DocMeta();
+            docMeta.setId((long) i);
+            docMeta.setDataId("data-" + i);
+            docMeta.setMd5("md5-" + i);
+            docMeta.setIsLocked(Booleans.FALSE);
+            docMetas.add(docMeta);
+        }
+        return docMetas;
+    }
+
+}
@@ -0,0 +1,77 @@
+package cn.torna.service;
+
+import cn.torna.service.dto.DocInfoDTO;
+import cn.torna.service.dto.DocParamDTO;
+import cn.torna.service.dto.EnumInfoDTO;
+import cn.torna.service.dto.EnumItemDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 增量推送md5
+ *
+ * @author tanghc
+ */
+public class DocPushMd5Test {
+
+    @Test
+    public void testSame() {
+        Assertions.assertEquals(DocInfoService.getPushMd5(buildDoc()), DocInfoService.getPushMd5(buildDoc()));
+    }
+
+    @Test
+    public void testChanged() {
+        String md5 = DocInfoService.getPushMd5(buildDoc());
+
+        DocInfoDTO doc = buildDoc();
+        doc.setDeprecated("$false$");
+        Assertions.assertNotEquals(md5, DocInfoService.getPushMd5(doc));
+
+        doc = buildDoc();
+        doc.setContentType("application/xml");
+        Assertions.assertNotEquals(md5, DocInfoService.getPushMd5(doc));
+
+        doc = buildDoc();
+        doc.getRequestParams().get(0).setMaxLength("64");
+        Assertions.assertNotEquals(md5, DocInfoService.getPushMd5(doc));
+
+        doc = buildDoc();
+        doc.getRequestParams().get(0).setOrderIndex(9);
+        Assertions.assertNotEquals(md5, DocInfoService.getPushMd5(doc));
+
+        doc = buildDoc();
+        doc.getRequestParams().get(0).getEnumInfo().getItems().get(0).setValue("9");
+        Assertions.assertNotEquals(md5, DocInfoService.getPushMd5(doc));
+    }
+
+    private static DocInfoDTO buildDoc() {
+        EnumItemDTO item = new EnumItemDTO();
+        item.setName("ENABLE");
+        item.setType("int");
+        item.setValue("1");
+        EnumInfoDTO enumInfo = new EnumInfoDTO();
+        enumInfo.setName("Status");
+        enumInfo.setItems(new ArrayList<>(Collections.singletonList(item)));
+
+        DocParamDTO param = new DocParamDTO();
+        param.setName("status");
+        param.setType("enum");
+        param.setMaxLength("32");
+        param.setOrderIndex(0);
+        param.setEnumInfo(enumInfo);
+        List<DocParamDTO> requestParams = new ArrayList<>(Collections.singletonList(param));
+
+        DocInfoDTO doc = new DocInfoDTO();
+        doc.setName("getUser");
+        doc.setUrl("/user/get");
+        doc.setHttpMethod("GET");
+        doc.setContentType("application/json");
+        doc.setRequestParams(requestParams);
+        return doc;
+    }
+
+}
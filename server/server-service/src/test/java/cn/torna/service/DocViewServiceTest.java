@@ -0,0 +1,86 @@
+package cn.torna.service;
+
+import cn.torna.service.dto.TreeDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 文档菜单树接口数量统计：按父节点分组与逐层扫描结果一致
+ *
+ * @author tanghc
+ */
+public class DocViewServiceTest {
+
+    @Test
+    public void testCalcDocCount() {
+        List<TreeDTO> expect = buildTree(2000);
+        List<TreeDTO> actual = buildTree(2000);
+        calcDocCountScan(expect);
+        DocViewService.calcDocCount(actual);
+        for (int i = 0; i < expect.size(); i++) {
+            Assertions.assertEquals(expect.get(i).getApiCount(), actual.get(i).getApiCount(), expect.get(i).getLabel());
+            Assertions.assertSame(expect.get(i).getParent() == null, actual.get(i).getParent() == null);
+        }
+        // 根节点数量等于所有文档数量
+        long docCount = actual.stream().filter(treeDTO -> treeDTO.getType() == DocViewService.TYPE_DOC).count();
+        Assertions.assertEquals(docCount, actual.get(0).getApiCount());
+    }
+
+    /**
+     * 一个项目，每个模块10个文件夹，每个文件夹下一个子文件夹，其余都是文档
+     */
+    private static List<TreeDTO> buildTree(int size) {
+        List<TreeDTO> list = new ArrayList<>(size);
+        list.add(new TreeDTO("p", "project", "", DocViewService.TYPE_PROJECT));
+        int moduleIndex = 0;
+        while (list.size() < size) {
+            String moduleId = "m" + moduleIndex++;
+            list.add(new TreeDTO(moduleId, moduleId, "p", DocViewService.TYPE_MODULE));
+            for (int i = 0; i < 10 && list.size() < size; i++) {
+                String folderId = moduleId + "-f" + i;
+                String subFolderId = folderId + "-s";
+                list.add(new TreeDTO(folderId, folderId, moduleId, DocViewService.TYPE_FOLDER));
+                list.add(new TreeDTO(subFolderId, subFolderId, folderId, DocViewService.TYPE_FOLDER));
+                for (int j = 0; j < 40 && list.size() < size; j++) {
+                    String parentId = j % 2 == 0 ? folderId : subFolderId;
+                    String docId = folderId + "-d" + j;
+                    list.add(new TreeDTO(docId, docId, parentId, DocViewService.TYPE_DOC));
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 之前的实现：每个节点都扫描一遍整个列表找子节点，每个文档逐级往上累加
+     */
+    private static void calcDocCountScan(List<TreeDTO> list) {
+        Map<String, TreeDTO> idMap = list.stream().collect(Collectors.toMap(TreeDTO::getId, Function.identity()));
+        initParentScan(list, "", idMap);
+        for (TreeDTO treeDTO : list) {
+            if (Objects.equals(treeDTO.getType(), DocViewService.TYPE_DOC)) {
+                TreeDTO parent = treeDTO.getParent();
+                if (parent != null) {
+                    parent.addApiCount();
+                }
+            }
+        }
+    }
+
+    private static void initParentScan(List<TreeDTO> list, String parentId, Map<String, TreeDTO> idMap) {
+        for (TreeDTO item : list) {
+            if (Objects.equals(item.getParentId(), parentId)) {
+                item.setParent(idMap.get(item.getParentId()));
+                initParentScan(list, item.getId(), idMap);
+            }
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package cn.torna.web.config;
 
+import cn.torna.common.bean.Configs;
 import cn.torna.common.bean.User;
 import cn.torna.common.bean.UserCacheManager;
 import cn.torna.common.context.SpringContext;
@@ -10,17 +11,20 @@ import cn.torna.common.exception.LoginFailureException;
 import cn.torna.common.util.IdUtil;
 import cn.torna.common.util.JwtUtil;
 import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.math.NumberUtils;
-import org.springframework.core.env.Environment;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Date;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -33,6 +37,14 @@ public class UserContext {
     public static final String JWT_PREFIX = "Bearer ";
     private static final String SECRET_KEY = "torna.jwt.secret";
 
+    /**
+     * 验证通过的token，避免每次请求都做一次签名校验。
+     * key：token，value：token对应的用户id、过期时间和校验时使用的secret
+     */
+    private static final Cache<String, VerifiedToken> VERIFIED_TOKEN_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
 
     private static Supplier<String> tokenGetter = () -> {
         HttpServletRequest request = ((ServletRequestAttributes) (RequestContextHolder.currentRequestAttributes())).getRequest();
@@ -94,23 +106,34 @@ public class UserContext {
         if (StringUtils.isEmpty(token) || !token.contains(":")) {
             return null;
         }
+        // 从系统配置快照中读取，配置修改后快照会被替换，secret变了之前的校验结果作废
+        String secret = Configs.getValue(SECRET_KEY);
+        VerifiedToken verifiedToken = VERIFIED_TOKEN_CACHE.getIfPresent(token);
+        if (verifiedToken == null || verifiedToken.isExpired() || !Objects.equals(verifiedToken.secret, secret)) {
+            verifiedToken = verifyToken(token, secret);
+            VERIFIED_TOKEN_CACHE.put(token, verifiedToken);
+        }
+        return SpringContext.getBean(UserCacheManager.class).getUser(verifiedToken.userId);
+    }
+
+    private static VerifiedToken verifyToken(String token, String secret) throws ErrorTokenException {
         String[] tokenArr = token.split(":");
         String userIdStr = tokenArr[0];
         String jwt = tokenArr[1];
-        Environment environment = SpringContext.getBean(Environment.class);
-        String secret = environment.getProperty(SECRET_KEY);
-        Map<String, Claim> data = null;
+        DecodedJWT decodedJWT;
         Long userIdDecoded = IdUtil.decode(userIdStr);
         // verify jwt
         try {
-            data = JwtUtil.verifyJwt(jwt, secret);
+            decodedJWT = JwtUtil.verify(jwt, secret);
         } catch (JwtExpiredException | JwtErrorException e) {
+            VERIFIED_TOKEN_CACHE.invalidate(token);
             log.error("jwt verify failed, userId:{}, token:{}, message:{}", userIdDecoded, token, e.getMessage(), e);
             throw new ErrorTokenException();
         }
-        Claim id = data.get("id");
+        Claim id = decodedJWT.getClaim("id");
         long userId = verifyUserId(id, userIdDecoded);
-        return SpringContext.getBean(UserCacheManager.class).getUser(userId);
+        Date expiresAt = decodedJWT.getExpiresAt();
+        return new VerifiedToken(userId, expiresAt == null ? Long.MAX_VALUE : expiresAt.getTime(), secret);
     }
 
     /**
@@ -121,7 +144,7 @@ public class UserContext {
      * @throws ErrorTokenException
      */
     private static long verifyUserId(Claim id, Long userIdDecoded) throws ErrorTokenException {
-        if (id == null) {
+        if (id == null || id.isNull()) {
             throw new ErrorTokenException();
         }
         long userId = NumberUtils.toLong(id.asString(), 0);
@@ -132,6 +155,23 @@ public class UserContext {
     }
 
 
+    private static class VerifiedToken {
+        private final long userId;
+        /** jwt过期时间，毫秒 */
+        private final long expiresAt;
+        private final String secret;
+
+        VerifiedToken(long userId, long expiresAt, String secret) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+            this.secret = secret;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
     @Deprecated
     public static Locale getLocale() {
         try {
@@ -0,0 +1,42 @@
+package cn.torna.web.controller.admin;
+
+import cn.torna.api.bean.ModulePushStats;
+import cn.torna.api.bean.PushExecutorStats;
+import cn.torna.api.manager.ModulePushScheduler;
+import cn.torna.common.bean.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 文档推送监控
+ *
+ * @author tanghc
+ */
+@RestController
+@RequestMapping("admin/push")
+public class AdminPushController {
+
+    @Autowired
+    private ModulePushScheduler modulePushScheduler;
+
+    /**
+     * 各模块推送队列情况，包括排队数量、排队耗时
+     */
+    @GetMapping("/stats")
+    public Result<List<ModulePushStats>> stats() {
+        return Result.ok(modulePushScheduler.listStats());
+    }
+
+    /**
+     * 推送线程池情况，包括执行中、排队中、已完成、被拒绝的数量及执行耗时
+     */
+    @GetMapping("/executor")
+    public Result<PushExecutorStats> executor() {
+        return Result.ok(modulePushScheduler.getExecutorStats());
+    }
+
+}
@@ -126,7 +126,7 @@ public class UserController {
     @PostMapping("delete")
     public Result delete(@RequestBody UserInfoParam param) {
         Long id = param.getId();
-        userInfoService.getMapper().forceDeleteById(id);
+        userInfoService.forceDeleteUser(id);
         return Result.ok();
     }
 
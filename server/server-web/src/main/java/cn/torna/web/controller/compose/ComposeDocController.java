@@ -12,6 +12,7 @@ import cn.torna.common.util.CopyUtil;
 import cn.torna.dao.entity.ComposeDoc;
 import cn.torna.dao.entity.ComposeProject;
 import cn.torna.dao.entity.DocInfo;
+import cn.torna.service.CacheVersionManager;
 import cn.torna.service.ComposeDocService;
 import cn.torna.service.ComposeProjectService;
 import cn.torna.service.DocInfoService;
@@ -28,6 +29,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Collections;
 import java.time.LocalDateTime;
@@ -132,6 +134,10 @@ public class ComposeDocController {
 
     @GetMapping("list")
     public Result<List<ComposeDocVO>> list(@HashId Long projectId) {
+        return Result.ok(listComposeDoc(projectId));
+    }
+
+    private List<ComposeDocVO> listComposeDoc(Long projectId) {
         List<ComposeDoc> composeDocList = composeDocService.listByProjectId(projectId);
         // 所有文档id
         List<Long> docIdList = composeDocList.stream()
@@ -157,17 +163,22 @@ public class ComposeDocController {
                 })
                 .collect(Collectors.toList());
 
-        return Result.ok(composeDocVOList);
+        return composeDocVOList;
     }
 
     @GetMapping("menu")
     @NoLogin
-    public Result<List<ComposeDocVO>> menu(@HashId Long projectId) {
+    public Result<List<ComposeDocVO>> menu(@HashId Long projectId, WebRequest request) {
         ComposeProject composeProject = composeProjectService.getById(projectId);
         if (composeProject == null || composeProject.getStatus() == StatusEnum.DISABLED.getStatus()) {
             return Result.ok(Collections.emptyList());
         }
-        return this.list(projectId);
+        List<ComposeDocVO> composeDocVOList = listComposeDoc(projectId);
+        // 文档来自不同模块，ETag根据菜单内容生成，没有变化时省去序列化和传输
+        if (request.checkNotModified(CacheVersionManager.buildETag(composeDocVOList.toString()))) {
+            return null;
+        }
+        return Result.ok(composeDocVOList);
     }
 
     @PostMapping("orderindex/update")
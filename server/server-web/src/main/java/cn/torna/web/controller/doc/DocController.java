@@ -36,6 +36,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.Collections;
@@ -168,15 +169,19 @@ public class DocController {
      * 查询文档详细信息，不需要登录
      *
      * @param id 主键
-     * @return 返回记录，没有返回null
+     * @return 返回记录，没有返回null，文档没有变化返回304
      */
     @GetMapping("view")
     @NoLogin
-    public Result<DocInfoDTO> view(@HashId Long id) {
+    public Result<DocInfoDTO> view(@HashId Long id, WebRequest request) {
         if (id == null) {
             throw new BizException("文档不存在");
         }
-        DocInfoDTO docInfoDTO = docInfoService.getDocDetailView(id);
+        DocInfo docInfo = docInfoService.getDocView(id);
+        if (request.checkNotModified(docInfoService.getDocDetailETag(docInfo))) {
+            return null;
+        }
+        DocInfoDTO docInfoDTO = docInfoService.getDocDetail(docInfo);
         return Result.ok(docInfoDTO);
     }
 
@@ -200,15 +205,19 @@ public class DocController {
      * 查询文档详细信息，不需要登录
      *
      * @param id 主键
-     * @return 返回记录，没有返回null
+     * @return 返回记录，没有返回null，文档没有变化返回304
      */
     @GetMapping("viewShow")
     @NoLogin
-    public Result<DocInfoDTO> viewShow(@HashId Long id) {
+    public Result<DocInfoDTO> viewShow(@HashId Long id, WebRequest request) {
         if (id == null) {
             throw new BizException("文档不存在");
         }
-        DocInfoDTO docInfoDTO = docInfoService.getDocDetailView(id);
+        DocInfo docInfo = docInfoService.getDocView(id);
+        if (request.checkNotModified(docInfoService.getDocDetailETag(docInfo))) {
+            return null;
+        }
+        DocInfoDTO docInfoDTO = docInfoService.getDocDetail(docInfo);
         List<ModuleEnvironmentDTO> debugEnvs = docInfoDTO.getDebugEnvs();
         if (debugEnvs != null) {
             // 只返回公开的调试环境
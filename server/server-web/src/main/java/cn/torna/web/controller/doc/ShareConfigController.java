@@ -7,9 +7,11 @@ import cn.torna.common.bean.User;
 import cn.torna.web.config.UserContext;
 import cn.torna.common.enums.StatusEnum;
 import cn.torna.common.util.CopyUtil;
+import cn.torna.dao.entity.DocInfo;
 import cn.torna.dao.entity.ShareConfig;
 import cn.torna.dao.entity.ShareContent;
 import cn.torna.dao.entity.ShareEnvironment;
+import cn.torna.service.DocInfoService;
 import cn.torna.service.ShareConfigService;
 import cn.torna.service.dto.DocInfoDTO;
 import cn.torna.service.dto.ShareConfigDTO;
@@ -27,6 +29,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -40,6 +43,9 @@ public class ShareConfigController {
     @Autowired
     private ShareConfigService shareConfigService;
 
+    @Autowired
+    private DocInfoService docInfoService;
+
     @PostMapping("page")
     public Result<PageEasyui<ShareConfigVO>> page(@RequestBody ShareConfigParam param) {
         PageEasyui<ShareConfigVO> pageInfo = MapperUtil.queryForEasyuiDatagrid(
@@ -111,11 +117,15 @@ public class ShareConfigController {
      *
      * @param docId 主键
      * @param shareConfigId 主键
-     * @return 返回记录，没有返回null
+     * @return 返回记录，没有返回null，文档没有变化返回304
      */
     @GetMapping("view")
     @NoLogin
-    public Result<DocInfoDTO> view(@HashId Long docId, @HashId Long shareConfigId) {
+    public Result<DocInfoDTO> view(@HashId Long docId, @HashId Long shareConfigId, WebRequest request) {
+        DocInfo docInfo = docInfoService.getDocView(docId);
+        if (request.checkNotModified(shareConfigService.getShareDocDetailETag(docInfo, shareConfigId))) {
+            return null;
+        }
         DocInfoDTO docInfoDTO = shareConfigService.getShareDocDetail(docId, shareConfigId);
         return Result.ok(docInfoDTO);
     }
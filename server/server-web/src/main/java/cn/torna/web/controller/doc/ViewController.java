@@ -1,20 +1,19 @@
 package cn.torna.web.controller.doc;
 
 import cn.torna.common.annotation.HashId;
-import cn.torna.common.bean.Booleans;
 import cn.torna.common.bean.Result;
 import cn.torna.common.bean.User;
 import cn.torna.web.config.UserContext;
 import cn.torna.common.exception.BizException;
 import cn.torna.common.util.CopyUtil;
-import cn.torna.common.util.IdGen;
-import cn.torna.common.util.IdUtil;
 import cn.torna.dao.entity.DocInfo;
 import cn.torna.dao.entity.Module;
 import cn.torna.dao.entity.Project;
 import cn.torna.dao.entity.Space;
 import cn.torna.dao.entity.SpaceUser;
 import cn.torna.service.DocInfoService;
+import cn.torna.service.CacheVersionManager;
+import cn.torna.service.DocMenuCacheManager;
 import cn.torna.service.DocViewService;
 import cn.torna.service.ModuleService;
 import cn.torna.service.ProjectService;
@@ -28,12 +27,13 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -46,7 +46,6 @@ public class ViewController {
 
     private static final byte TYPE_PROJECT = DocViewService.TYPE_PROJECT;
     private static final byte TYPE_MODULE = DocViewService.TYPE_MODULE;
-    private static final byte TYPE_FOLDER = DocViewService.TYPE_FOLDER;
     private static final byte TYPE_DOC = DocViewService.TYPE_DOC;
 
     @Autowired
@@ -61,53 +60,33 @@ public class ViewController {
     @Autowired
     private DocInfoService docInfoService;
 
+    @Autowired
+    private DocMenuCacheManager docMenuCacheManager;
+
     /**
      * 文档预览页左侧树，空间维度
      * @param spaceId 空间id
-     * @return 返回树状菜单
+     * @return 返回树状菜单，菜单没有变化返回304
      */
     @GetMapping("data")
-    public Result<List<TreeDTO>> data(@HashId Long spaceId) {
+    public Result<List<TreeDTO>> data(@HashId Long spaceId, WebRequest request) {
         // 获取空间下的项目
         User user = UserContext.getUser();
         Space space = spaceService.getById(spaceId);
         List<ProjectDTO> projectDTOS = projectService.listSpaceUserProject(spaceId, user);
+        Map<Long, List<Module>> projectModuleMap = listProjectModules(projectDTOS);
+        String etag = buildETag(space.getName(), projectDTOS, projectModuleMap);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<TreeDTO> list = new ArrayList<>();
         for (ProjectDTO projectDTO : projectDTOS) {
-            TreeDTO projectVO = new TreeDTO(IdGen.nextId(), projectDTO.getName(), "", TYPE_PROJECT);
+            TreeDTO projectVO = new TreeDTO(DocViewService.buildId("project", projectDTO.getId()), projectDTO.getName(), "", TYPE_PROJECT);
             list.add(projectVO);
-            List<Module> modules = moduleService.listProjectModules(projectDTO.getId());
+            List<Module> modules = projectModuleMap.getOrDefault(projectDTO.getId(), Collections.emptyList());
             for (Module module : modules) {
-                TreeDTO moduleVO = new TreeDTO(IdGen.nextId(), module.getName(), projectVO.getId(), TYPE_MODULE);
-                list.add(moduleVO);
-                List<DocInfo> docInfos = docInfoService.listDocMenuView(module.getId());
-                String base = moduleVO.getId();
-                for (DocInfo docInfo : docInfos) {
-                    boolean isFolder = Booleans.isTrue(docInfo.getIsFolder());
-                    String id = isFolder ? DocViewService.buildId(base, docInfo.getId()) : IdUtil.encode(docInfo.getId());
-                    String parentId = DocViewService.buildParentId(base, docInfo.getParentId());
-                    byte type = isFolder ? TYPE_FOLDER : TYPE_DOC;
-                    TreeDTO docInfoVO = new TreeDTO(id, docInfo.getName(), parentId, type);
-                    docInfoVO.setHttpMethod(docInfo.getHttpMethod());
-                    docInfoVO.setDocType(docInfo.getType());
-                    docInfoVO.setDocId(docInfo.getId());
-                    // 如果是文档
-                    if (!isFolder) {
-                        docInfoVO.setUrl(docInfo.getUrl());
-                        List<String> originInfo = Arrays.asList(
-                                space.getName(),
-                                projectDTO.getName(),
-                                module.getName()
-                                );
-                        docInfoVO.setOrigin(String.join("/", originInfo));
-                        String deprecated = docInfo.getDeprecated();
-                        if (deprecated == null) {
-                            deprecated = "$false$";
-                        }
-                        docInfoVO.setDeprecated(deprecated);
-                    }
-                    list.add(docInfoVO);
-                }
+                String origin = String.join("/", space.getName(), projectDTO.getName(), module.getName());
+                addModuleMenu(list, module, projectVO.getId(), origin);
             }
         }
         DocViewService.calcDocCount(list);
@@ -117,50 +96,75 @@ public class ViewController {
     /**
      * 文档预览页左侧树，项目维度
      * @param projectId 项目id
-     * @return 返回树状菜单
+     * @return 返回树状菜单，菜单没有变化返回304
      */
     @GetMapping("dataByProject")
-    public Result<List<TreeDTO>> dataByProject(@HashId Long projectId) {
+    public Result<List<TreeDTO>> dataByProject(@HashId Long projectId, WebRequest request) {
         Project project = projectService.getById(projectId);
         ProjectDTO projectDTO = CopyUtil.copyBean(project, ProjectDTO::new);
+        List<ProjectDTO> projectDTOS = Collections.singletonList(projectDTO);
+        Map<Long, List<Module>> projectModuleMap = listProjectModules(projectDTOS);
+        String etag = buildETag("", projectDTOS, projectModuleMap);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<TreeDTO> list = new ArrayList<>();
-        List<Module> modules = moduleService.listProjectModules(projectDTO.getId());
+        List<Module> modules = projectModuleMap.getOrDefault(projectDTO.getId(), Collections.emptyList());
         for (Module module : modules) {
-            TreeDTO moduleVO = new TreeDTO(IdGen.nextId(), module.getName(), "", TYPE_MODULE);
-            list.add(moduleVO);
-            List<DocInfo> docInfos = docInfoService.listDocMenuView(module.getId());
-            String base = moduleVO.getId();
-            for (DocInfo docInfo : docInfos) {
-                boolean isFolder = Booleans.isTrue(docInfo.getIsFolder());
-                String id = isFolder ? DocViewService.buildId(base, docInfo.getId()) : IdUtil.encode(docInfo.getId());
-                String parentId = DocViewService.buildParentId(base, docInfo.getParentId());
-                byte type = isFolder ? TYPE_FOLDER : TYPE_DOC;
-                TreeDTO docInfoVO = new TreeDTO(id, docInfo.getName(), parentId, type);
-                docInfoVO.setHttpMethod(docInfo.getHttpMethod());
-                docInfoVO.setDocType(docInfo.getType());
-                docInfoVO.setDocId(docInfo.getId());
-                // 如果是文档
-                if (!isFolder) {
-                    docInfoVO.setUrl(docInfo.getUrl());
-                    List<String> originInfo = Arrays.asList(
-                            "",
-                            projectDTO.getName(),
-                            module.getName()
-                    );
-                    String deprecated = docInfo.getDeprecated();
-                    if (deprecated == null) {
-                        deprecated = "$false$";
-                    }
-                    docInfoVO.setDeprecated(deprecated);
-                    docInfoVO.setOrigin(String.join("/", originInfo));
-                }
-                list.add(docInfoVO);
-            }
+            String origin = String.join("/", "", projectDTO.getName(), module.getName());
+            addModuleMenu(list, module, "", origin);
         }
         DocViewService.calcDocCount(list);
         return Result.ok(list);
     }
 
+    /**
+     * 添加模块节点及模块下的文档
+     */
+    private void addModuleMenu(List<TreeDTO> list, Module module, String parentId, String origin) {
+        // 节点id固定，模块下的菜单可以缓存，前端也能用ETag
+        TreeDTO moduleVO = new TreeDTO(DocViewService.buildId("module", module.getId()), module.getName(), parentId, TYPE_MODULE);
+        list.add(moduleVO);
+        List<TreeDTO> docInfoVOs = docMenuCacheManager.listModuleMenu(module.getId(), moduleVO.getId());
+        for (TreeDTO docInfoVO : docInfoVOs) {
+            if (Objects.equals(docInfoVO.getType(), TYPE_DOC)) {
+                docInfoVO.setOrigin(origin);
+            }
+        }
+        list.addAll(docInfoVOs);
+    }
+
+    /**
+     * 一次查出所有项目下的模块
+     * @return key：projectId，value：模块
+     */
+    private Map<Long, List<Module>> listProjectModules(List<ProjectDTO> projectDTOS) {
+        if (projectDTOS.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> projectIds = projectDTOS.stream().map(ProjectDTO::getId).collect(Collectors.toList());
+        return moduleService.listByCollection("project_id", projectIds)
+                .stream()
+                .collect(Collectors.groupingBy(Module::getProjectId));
+    }
+
+    /**
+     * 菜单内容只跟空间、项目、模块名称以及模块下的文档有关，文档变化时模块版本号会变
+     */
+    private String buildETag(String spaceName, List<ProjectDTO> projectDTOS, Map<Long, List<Module>> projectModuleMap) {
+        StringBuilder content = new StringBuilder(spaceName);
+        List<Long> moduleIds = new ArrayList<>();
+        for (ProjectDTO projectDTO : projectDTOS) {
+            content.append('\n').append(projectDTO.getId()).append('=').append(projectDTO.getName());
+            for (Module module : projectModuleMap.getOrDefault(projectDTO.getId(), Collections.emptyList())) {
+                content.append('\n').append(module.getId()).append('=').append(module.getName());
+                moduleIds.add(module.getId());
+            }
+        }
+        content.append('\n').append(docMenuCacheManager.getMenuVersion(moduleIds));
+        return CacheVersionManager.buildETag(content.toString());
+    }
+
     @GetMapping("projects")
     public Result<List<SpaceProjectDTO>> projects() {
         // 获取空间下的项目
@@ -188,16 +192,24 @@ public class ViewController {
      * 根据主键查询
      *
      * @param id 主键
-     * @return 返回记录，没有返回null
+     * @return 返回记录，没有返回null，文档没有变化返回304
      */
     @GetMapping("detail")
-    public Result<DocInfoDTO> detail(@HashId Long id) {
-        DocInfoDTO docInfoDTO = docInfoService.getDocDetailView(id);
+    public Result<DocInfoDTO> detail(@HashId Long id, WebRequest request) {
+        DocInfo docInfo = docInfoService.getDocView(id);
+        String etag = docInfoService.getDocDetailETag(docInfo);
+        // 先校验权限再判断是否有变化
         User user = UserContext.getUser();
-        SpaceUser spaceUser = spaceService.getSpaceUser(docInfoDTO.getSpaceId(), user.getUserId());
-        if (!user.isSuperAdmin() && spaceUser == null) {
-            throw new BizException("无权限访问");
+        if (!user.isSuperAdmin()) {
+            SpaceUser spaceUser = spaceService.getSpaceUser(docInfoService.getSpaceId(docInfo), user.getUserId());
+            if (spaceUser == null) {
+                throw new BizException("无权限访问");
+            }
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
         }
+        DocInfoDTO docInfoDTO = docInfoService.getDocDetail(docInfo);
         return Result.ok(docInfoDTO);
     }
 
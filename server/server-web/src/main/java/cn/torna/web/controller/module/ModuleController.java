@@ -215,7 +215,7 @@ public class ModuleController {
     @GetMapping("refresh/swaggerV2")
     public Result refreshSwaggerDocV2(@HashId Long moduleId, HttpServletRequest request) {
         User user = UserContext.getUser(request);
-        swaggerRefreshApi.refresh(moduleId, RequestUtil.getIP(request), user);
+        swaggerRefreshApi.refresh(moduleId, RequestUtil.getIP(request), user, true);
         return Result.ok();
     }
 
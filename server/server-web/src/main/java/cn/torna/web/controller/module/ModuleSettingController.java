@@ -31,6 +31,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -219,6 +220,7 @@ public class ModuleSettingController {
             return Result.ok();
         }
         ModuleSwaggerConfigVO moduleSwaggerConfigVO = CopyUtil.copyBean(moduleSwaggerConfig, ModuleSwaggerConfigVO::new);
+        moduleSwaggerConfigVO.setContent(moduleSwaggerConfigService.getContent(moduleSwaggerConfig));
         return Result.ok(moduleSwaggerConfigVO);
     }
 
@@ -228,7 +230,16 @@ public class ModuleSettingController {
         if (moduleSwaggerConfig == null) {
             return Result.ok();
         }
+        String url = moduleSwaggerConfig.getUrl();
         CopyUtil.copyPropertiesIgnoreNull(param, moduleSwaggerConfig);
+        // 换了地址，旧的ETag、Last-Modified不再有效
+        if (!Objects.equals(url, moduleSwaggerConfig.getUrl())) {
+            moduleSwaggerConfig.setEtag("");
+            moduleSwaggerConfig.setLastModified("");
+        }
+        if (param.getContent() != null) {
+            moduleSwaggerConfigService.updateContent(moduleSwaggerConfig, param.getContent());
+        }
         moduleSwaggerConfigService.updateIgnoreNull(moduleSwaggerConfig);
         return Result.ok();
     }
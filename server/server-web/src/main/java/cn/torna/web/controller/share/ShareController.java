@@ -26,6 +26,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -80,14 +81,17 @@ public class ShareController {
      * 获取项目文档目录，可用于文档菜单
      *
      * @param id 模块id
-     * @return 返回结果
+     * @return 返回结果，菜单没有变化返回304
      */
     @GetMapping("menu")
-    public Result<List<TreeDTO>> listProjectDoc(@HashId Long id) {
+    public Result<List<TreeDTO>> listProjectDoc(@HashId Long id, WebRequest request) {
         ShareConfig shareConfig = shareConfigService.getById(id);
         if (shareConfig == null || shareConfig.getStatus() == StatusEnum.DISABLED.getStatus()) {
             throw new BizException("文档不存在");
         }
+        if (request.checkNotModified(shareConfigService.getShareMenuETag(shareConfig))) {
+            return null;
+        }
         List<DocInfo> docInfos;
         if (shareConfig.getIsAll() == Booleans.TRUE) {
             docInfos = docInfoService.listModuleDoc(shareConfig.getModuleId());